@@ -4,10 +4,13 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.springframework.boot.ApplicationArguments;
@@ -23,15 +26,20 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
+import ca.joaoborges.filemanager.dto.BulkRenameRequest;
 import ca.joaoborges.filemanager.dto.DuplicateRequest;
 import ca.joaoborges.filemanager.dto.ExtractRequest;
 import ca.joaoborges.filemanager.dto.OrganizeRequest;
 import ca.joaoborges.filemanager.dto.PhotoOrganizeRequest;
+import ca.joaoborges.filemanager.dto.PhotoRelayoutRequest;
 import ca.joaoborges.filemanager.dto.RenameRequest;
+import ca.joaoborges.filemanager.operations.bulkRename.BulkRenameResult;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
 import ca.joaoborges.filemanager.operations.duplicateFinder.DuplicateFinderResult;
 import ca.joaoborges.filemanager.operations.extraction.ExtractionResult;
 import ca.joaoborges.filemanager.operations.organization.OrganizationResult;
 import ca.joaoborges.filemanager.operations.photoOrganization.PhotoOrganizerResult;
+import ca.joaoborges.filemanager.operations.photoOrganization.PhotoRelayoutResult;
 import ca.joaoborges.filemanager.service.FileOperationsService;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
@@ -57,6 +65,11 @@ public class OneshotRunner implements ApplicationRunner {
 
     public static final String ARG_FILE = "oneshot-file";
 
+    /**
+     * How long a signal waits for the cancelled operation to stop before the JVM exits anyway.
+     */
+    private static final long SHUTDOWN_GRACE_SECONDS = 10;
+
     /**
      * The original stdout, captured by FileManager.main before logging is
      * redirected to stderr. Defaults to the live System.out so unit tests and
@@ -108,6 +121,17 @@ public class OneshotRunner implements ApplicationRunner {
         }
 
         final ObjectMapper mapper = buildMapper();
+        final CancellationToken cancellation = new CancellationToken();
+        final CountDownLatch finished = new CountDownLatch(1);
+        // Ctrl+C / SIGTERM: stop the operation at its next file and let it report before the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            cancellation.cancel("Interrupted by signal");
+            try {
+                finished.await(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS);
+            } catch (final InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }, "oneshot-cancel"));
         int exitCode = 0;
         try {
             final String json = readPayload(args);
@@ -117,8 +141,16 @@ public class OneshotRunner implements ApplicationRunner {
                 throw new CliError("Missing required field: operation");
             }
             final JsonNode params = root.has("params") ? root.get("params") : mapper.createObjectNode();
+            final JsonNode timeoutNode = root.get("timeoutSeconds");
+            if (timeoutNode != null && !timeoutNode.isNull()
+                    && (!timeoutNode.canConvertToLong() || timeoutNode.asLong() <= 0)) {
+                throw new CliError("timeoutSeconds must be a positive number of seconds");
+            }
+            final CancellationToken bounded = timeoutNode != null && !timeoutNode.isNull()
+                    ? cancellation.withDeadline(Instant.now().plusSeconds(timeoutNode.asLong()))
+                    : cancellation;
 
-            final Map<String, Object> output = dispatch(opNode.asText(), params, mapper);
+            final Map<String, Object> output = dispatch(opNode.asText(), params, mapper, bounded);
             mapper.writeValue(resultStream, output);
             resultStream.println();
         } catch (final CliError reported) {
@@ -129,6 +161,7 @@ public class OneshotRunner implements ApplicationRunner {
             log.error("Oneshot execution failed", logged);
             writeError(mapper, logged.getMessage(), logged.getClass().getSimpleName());
         } finally {
+            finished.countDown();
             final int finalExitCode = exitCode;
             final int code = SpringApplication.exit(context, () -> {
                 return finalExitCode;
@@ -162,22 +195,26 @@ public class OneshotRunner implements ApplicationRunner {
     }
 
     private Map<String, Object> dispatch(final String operation, final JsonNode params,
-                                         final ObjectMapper mapper) throws IOException {
+                                         final ObjectMapper mapper, final CancellationToken cancellation)
+            throws IOException {
         return switch (operation) {
-            case "rename" -> doRename(params, mapper);
-            case "organize" -> doOrganize(params, mapper);
-            case "extract" -> doExtract(params, mapper);
-            case "photo-organize" -> doPhotoOrganize(params, mapper);
-            case "find-duplicates" -> doFindDuplicates(params, mapper);
+            case "rename" -> doRename(params, mapper, cancellation);
+            case "organize" -> doOrganize(params, mapper, cancellation);
+            case "extract" -> doExtract(params, mapper, cancellation);
+            case "photo-organize" -> doPhotoOrganize(params, mapper, cancellation);
+            case "photo-relayout" -> doPhotoRelayout(params, mapper, cancellation);
+            case "bulk-rename" -> doBulkRename(params, mapper, cancellation);
+            case "find-duplicates" -> doFindDuplicates(params, mapper, cancellation);
             default -> throw new CliError("Unknown operation: " + operation
-                    + ". Valid: rename, organize, extract, photo-organize, find-duplicates");
+                    + ". Valid: rename, organize, extract, photo-organize, photo-relayout, bulk-rename, find-duplicates");
         };
     }
 
-    private Map<String, Object> doRename(final JsonNode params, final ObjectMapper mapper) throws IOException {
+    private Map<String, Object> doRename(final JsonNode params, final ObjectMapper mapper,
+                                        final CancellationToken cancellation) throws IOException {
         final RenameRequest request = mapper.treeToValue(params, RenameRequest.class);
         validate(request);
-        final Object result = service.executeRename(request);
+        final Object result = service.executeRename(request, cancellation);
         final Map<String, Object> summary = new LinkedHashMap<>();
         summary.put("source", request.getSourceDirectory());
         summary.put("includeSubDirectories", request.isIncludeSubDirectories());
@@ -186,10 +223,11 @@ public class OneshotRunner implements ApplicationRunner {
         return wrap("rename", summary, result, mapper);
     }
 
-    private Map<String, Object> doOrganize(final JsonNode params, final ObjectMapper mapper) throws IOException {
+    private Map<String, Object> doOrganize(final JsonNode params, final ObjectMapper mapper,
+                                        final CancellationToken cancellation) throws IOException {
         final OrganizeRequest request = mapper.treeToValue(params, OrganizeRequest.class);
         validate(request);
-        final OrganizationResult result = service.executeOrganize(request);
+        final OrganizationResult result = service.executeOrganize(request, cancellation);
         final Map<String, Object> summary = new LinkedHashMap<>();
         summary.put("source", request.getSourceDirectory());
         summary.put("destination", request.getDestinationDirectory());
@@ -197,10 +235,11 @@ public class OneshotRunner implements ApplicationRunner {
         return wrap("organize", summary, result, mapper);
     }
 
-    private Map<String, Object> doExtract(final JsonNode params, final ObjectMapper mapper) throws IOException {
+    private Map<String, Object> doExtract(final JsonNode params, final ObjectMapper mapper,
+                                        final CancellationToken cancellation) throws IOException {
         final ExtractRequest request = mapper.treeToValue(params, ExtractRequest.class);
         validate(request);
-        final ExtractionResult result = service.executeExtract(request);
+        final ExtractionResult result = service.executeExtract(request, cancellation);
         final Map<String, Object> summary = new LinkedHashMap<>();
         summary.put("source", request.getSourceDirectory());
         summary.put("destination", request.getDestinationDirectory());
@@ -208,10 +247,11 @@ public class OneshotRunner implements ApplicationRunner {
         return wrap("extract", summary, result, mapper);
     }
 
-    private Map<String, Object> doPhotoOrganize(final JsonNode params, final ObjectMapper mapper) throws IOException {
+    private Map<String, Object> doPhotoOrganize(final JsonNode params, final ObjectMapper mapper,
+                                        final CancellationToken cancellation) throws IOException {
         final PhotoOrganizeRequest request = mapper.treeToValue(params, PhotoOrganizeRequest.class);
         validate(request);
-        final PhotoOrganizerResult result = service.executePhotoOrganization(request);
+        final PhotoOrganizerResult result = service.executePhotoOrganization(request, cancellation);
         final Map<String, Object> summary = new LinkedHashMap<>();
         summary.put("source", request.getSourceDirectory());
         summary.put("destination", request.getDestinationDirectory());
@@ -219,10 +259,38 @@ public class OneshotRunner implements ApplicationRunner {
         return wrap("photo-organize", summary, result, mapper);
     }
 
-    private Map<String, Object> doFindDuplicates(final JsonNode params, final ObjectMapper mapper) throws IOException {
+    private Map<String, Object> doPhotoRelayout(final JsonNode params, final ObjectMapper mapper,
+                                        final CancellationToken cancellation) throws IOException {
+        final PhotoRelayoutRequest request = mapper.treeToValue(params, PhotoRelayoutRequest.class);
+        validate(request);
+        final PhotoRelayoutResult result = service.executePhotoRelayout(request, cancellation);
+        final Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("directory", request.getDirectory());
+        summary.put("dryRun", request.isDryRun());
+        summary.put("foldersMoved", result == null ? 0 : result.getMovedDirectories().size());
+        summary.put("foldersMerged", result == null ? 0 : result.getMergedDirectories().size());
+        return wrap("photo-relayout", summary, result, mapper);
+    }
+
+    private Map<String, Object> doBulkRename(final JsonNode params, final ObjectMapper mapper,
+                                        final CancellationToken cancellation) throws IOException {
+        final BulkRenameRequest request = mapper.treeToValue(params, BulkRenameRequest.class);
+        validate(request);
+        final BulkRenameResult result = service.executeBulkRename(request, cancellation);
+        final Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("directory", request.getDirectory());
+        summary.put("pattern", request.getPattern());
+        summary.put("dryRun", request.isDryRun());
+        summary.put("filesRenamed", result == null ? 0 : result.getRenamedFiles().size());
+        summary.put("filesSkipped", result == null ? 0 : result.getSkippedFiles().size());
+        return wrap("bulk-rename", summary, result, mapper);
+    }
+
+    private Map<String, Object> doFindDuplicates(final JsonNode params, final ObjectMapper mapper,
+                                        final CancellationToken cancellation) throws IOException {
         final DuplicateRequest request = mapper.treeToValue(params, DuplicateRequest.class);
         validate(request);
-        final DuplicateFinderResult result = service.executeFindDuplicates(request);
+        final DuplicateFinderResult result = service.executeFindDuplicates(request, cancellation);
         final Map<String, Object> summary = new LinkedHashMap<>();
         summary.put("directory", request.getDirectory());
         summary.put("duplicatesRemoved", result == null || result.getFiles() == null ? 0 : result.getFiles().size());
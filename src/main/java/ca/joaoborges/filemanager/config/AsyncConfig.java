@@ -3,12 +3,15 @@ package ca.joaoborges.filemanager.config;
 import java.util.concurrent.Executor;
 
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import ca.joaoborges.filemanager.operations.common.ExecutionMode;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -23,12 +26,17 @@ import lombok.extern.slf4j.Slf4j;
  * - Queue capacity for pending tasks
  * - Thread naming for easier debugging
  * - Exception handling for uncaught async errors
+ *
+ * With filemanager.async.mode=VIRTUAL, operations run on virtual threads instead of the pool.
  */
 @Configuration
 @EnableAsync
 @Slf4j
 public class AsyncConfig implements AsyncConfigurer {
 
+    @Value("${filemanager.async.mode:PLATFORM}")
+    private ExecutionMode mode;
+
     /**
      * Configure the async executor
      *
@@ -43,6 +51,9 @@ public class AsyncConfig implements AsyncConfigurer {
     @Bean(name = "taskExecutor")
     @Override
     public Executor getAsyncExecutor() {
+        if (mode == ExecutionMode.VIRTUAL) {
+            return virtualExecutor();
+        }
         final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
@@ -60,6 +71,20 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    /**
+     * A virtual thread per operation; how many run at once is bounded by the job lanes and the
+     * I/O permits of WorkerThreads rather than by a pool size.
+     */
+    private Executor virtualExecutor() {
+        final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("FileOps-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(30_000);
+
+        log.info("Async executor configured: virtual threads");
+
+        return executor;
+    }
+
     /**
      * Handle uncaught exceptions in async methods
      *
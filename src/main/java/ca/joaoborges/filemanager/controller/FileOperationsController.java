@@ -1,24 +1,35 @@
 package ca.joaoborges.filemanager.controller;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import jakarta.validation.Valid;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import ca.joaoborges.filemanager.dto.BulkRenameRequest;
 import ca.joaoborges.filemanager.dto.DuplicateRequest;
 import ca.joaoborges.filemanager.dto.ExtractRequest;
 import ca.joaoborges.filemanager.dto.OrganizeRequest;
 import ca.joaoborges.filemanager.dto.PhotoOrganizeRequest;
+import ca.joaoborges.filemanager.dto.PhotoRelayoutRequest;
 import ca.joaoborges.filemanager.dto.RenameRequest;
+import ca.joaoborges.filemanager.operations.bulkRename.BulkRenameResult;
 import ca.joaoborges.filemanager.operations.duplicateFinder.DuplicateFinderResult;
 import ca.joaoborges.filemanager.operations.extraction.ExtractionResult;
 import ca.joaoborges.filemanager.operations.organization.OrganizationResult;
 import ca.joaoborges.filemanager.operations.photoOrganization.PhotoOrganizerResult;
+import ca.joaoborges.filemanager.operations.photoOrganization.PhotoRelayoutResult;
+import ca.joaoborges.filemanager.operations.renaming.RenamePreview;
 import ca.joaoborges.filemanager.service.FileOperationsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -42,6 +53,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class FileOperationsController {
 
+    private static final int MAX_PREVIEW_PAGE_SIZE = 5000;
+
     private final FileOperationsService fileOperationsService;
 
     @PostMapping("/rename")
@@ -58,6 +71,56 @@ public class FileOperationsController {
         ));
     }
 
+    /**
+     * Starts computing the proposed names without renaming anything; returns at once with the id to read the pages
+     * and the part of the first page computed so far. Pages fill up while the tree is listed, until "complete".
+     */
+    @PostMapping("/rename-preview")
+    public ResponseEntity<?> previewRename(@Valid @RequestBody final RenameRequest request,
+            @RequestParam(defaultValue = "500") final int size) {
+        log.info("Rename preview requested for directory: {}", request.getSourceDirectory());
+
+        final RenamePreview preview = fileOperationsService.previewRename(request);
+
+        return ResponseEntity.ok(previewPage(preview, 0, size));
+    }
+
+    @GetMapping("/rename-preview/{previewId}")
+    public ResponseEntity<?> renamePreviewPage(@PathVariable final String previewId,
+            @RequestParam(defaultValue = "0") final int page,
+            @RequestParam(defaultValue = "500") final int size) {
+        final RenamePreview preview = fileOperationsService.getRenamePreview(previewId);
+        if (preview == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "success", false,
+                "message", "Rename preview not found or expired: " + previewId
+            ));
+        }
+        return ResponseEntity.ok(previewPage(preview, page, size));
+    }
+
+    private static Map<String, Object> previewPage(final RenamePreview preview, final int page, final int size) {
+        final int pageSize = Math.max(1, Math.min(size, MAX_PREVIEW_PAGE_SIZE));
+        // read the flag before the entries: once complete, the entries read after it are final
+        final boolean complete = preview.isComplete();
+        final List<RenamePreview.Entry> entries = preview.page(page, pageSize);
+        final int total = preview.getTotal();
+        final Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", true);
+        body.put("message", complete ? "Rename preview ready" : "Rename preview in progress");
+        body.put("previewId", preview.getPreviewId());
+        body.put("complete", complete);
+        body.put("total", total);
+        body.put("page", page);
+        body.put("size", pageSize);
+        body.put("hasMore", !complete || (long) (page + 1) * pageSize < total);
+        body.put("entries", entries);
+        if (preview.getError() != null) {
+            body.put("error", preview.getError());
+        }
+        return body;
+    }
+
     @PostMapping("/organize")
     public ResponseEntity<?> organizeFiles(@Valid @RequestBody final OrganizeRequest request) {
         log.info("Organize operation requested: {} -> {}",
@@ -103,6 +166,35 @@ public class FileOperationsController {
         ));
     }
 
+    @PostMapping("/photo-relayout")
+    public ResponseEntity<?> relayoutPhotos(@Valid @RequestBody final PhotoRelayoutRequest request) {
+        log.info("Photo re-layout requested for directory: {}", request.getDirectory());
+
+        final PhotoRelayoutResult result = fileOperationsService.executePhotoRelayout(request);
+
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", request.isDryRun() ? "Photo re-layout planned" : "Photo folders moved successfully",
+            "foldersMoved", result != null
+                ? result.getMovedDirectories().size() + result.getMergedDirectories().size() : 0,
+            "result", result != null ? result : Map.of()
+        ));
+    }
+
+    @PostMapping("/bulk-rename")
+    public ResponseEntity<?> bulkRename(@Valid @RequestBody final BulkRenameRequest request) {
+        log.info("Bulk rename requested for directory: {}", request.getDirectory());
+
+        final BulkRenameResult result = fileOperationsService.executeBulkRename(request);
+
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", request.isDryRun() ? "Bulk rename planned" : "Files renamed successfully",
+            "filesRenamed", result != null ? result.getRenamedFiles().size() : 0,
+            "result", result != null ? result : Map.of()
+        ));
+    }
+
     @PostMapping("/find-duplicates")
     public ResponseEntity<?> findDuplicates(@Valid @RequestBody final DuplicateRequest request) {
         log.info("Duplicate finder requested for directory: {}", request.getDirectory());
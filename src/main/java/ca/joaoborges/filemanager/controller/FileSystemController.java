@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
 import ca.joaoborges.filemanager.security.PathSecurityService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * REST API for browsing the server's file system.
  * Provides endpoints to list directories and navigate the file system.
+ * Requests touching the disk are interactive: they go ahead of the per-file work of running operations.
  */
 @RestController
 @RequestMapping("/api/filesystem")
@@ -30,6 +32,8 @@ public class FileSystemController {
 
     private final PathSecurityService pathSecurityService;
 
+    private final IoScheduler ioScheduler;
+
     /**
      * Get user's home directory
      */
@@ -55,7 +59,7 @@ public class FileSystemController {
      */
     @GetMapping("/roots")
     public ResponseEntity<?> getRoots() {
-        try {
+        try (IoScheduler.Ticket interactive = ioScheduler.interactive()) {
             final File[] roots = File.listRoots();
             final List<FileSystemEntry> rootList = Arrays.stream(roots)
                 .map((final File root) -> {
@@ -90,7 +94,7 @@ public class FileSystemController {
     public ResponseEntity<?> listDirectory(
             @RequestParam(required = false) final String path,
             @RequestParam(defaultValue = "false") final boolean includeFiles) {
-        try {
+        try (IoScheduler.Ticket interactive = ioScheduler.interactive()) {
             // If no path provided, use user home
             final String directoryPath = path != null && !path.isEmpty()
                 ? path
@@ -203,7 +207,7 @@ public class FileSystemController {
      */
     @GetMapping("/validate")
     public ResponseEntity<?> validatePath(@RequestParam final String path) {
-        try {
+        try (IoScheduler.Ticket interactive = ioScheduler.interactive()) {
             final File file = pathSecurityService.validateAndGetFile(path);
 
             return ResponseEntity.ok(Map.of(
@@ -0,0 +1,34 @@
+package ca.joaoborges.filemanager.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST API exposing how long interactive requests and bulk operations wait for the disks; see {@link IoScheduler}.
+ */
+@RestController
+@RequestMapping("/api/io-scheduler")
+@RequiredArgsConstructor
+public class IoSchedulerController {
+
+    private final IoScheduler ioScheduler;
+
+    /**
+     * Queueing delay per class (INTERACTIVE, BULK) since startup, against each class's latency target
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "queueingDelay", ioScheduler.getStats()
+        ));
+    }
+
+}
@@ -0,0 +1,201 @@
+package ca.joaoborges.filemanager.controller;
+
+import java.time.Duration;
+import java.util.Map;
+
+import jakarta.validation.Valid;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ca.joaoborges.filemanager.dto.BulkRenameRequest;
+import ca.joaoborges.filemanager.dto.DuplicateRequest;
+import ca.joaoborges.filemanager.dto.ExtractRequest;
+import ca.joaoborges.filemanager.dto.OrganizeRequest;
+import ca.joaoborges.filemanager.dto.PhotoOrganizeRequest;
+import ca.joaoborges.filemanager.dto.PhotoRelayoutRequest;
+import ca.joaoborges.filemanager.dto.RenameRequest;
+import ca.joaoborges.filemanager.service.FileOperationsService;
+import ca.joaoborges.filemanager.service.Job;
+import ca.joaoborges.filemanager.service.JobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * REST controller for file operation jobs.
+ *
+ * Each submission endpoint takes the same request as its counterpart under /api/operations,
+ * but returns 202 Accepted with a job id as soon as the job is queued. Clients then:
+ * - poll GET /api/jobs/{jobId} for the status, or subscribe to /topic/progress/{jobId}
+ * - fetch GET /api/jobs/{jobId}/result once the job succeeded
+ * - stop it with POST /api/jobs/{jobId}/cancel
+ *
+ * The optional timeoutSeconds parameter gives a job a deadline, counted from its submission;
+ * a job past its deadline is cancelled like one cancelled on request.
+ *
+ * Submissions beyond the per-type queue limit are answered with 429 Too Many Requests.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class JobController {
+
+    private final JobService jobService;
+
+    private final FileOperationsService fileOperationsService;
+
+    @PostMapping("/rename")
+    public ResponseEntity<?> rename(@Valid @RequestBody final RenameRequest request,
+            @RequestParam(required = false) final Long timeoutSeconds) {
+        return accepted(jobService.submit("rename", timeout(timeoutSeconds),
+            cancellation -> fileOperationsService.executeRenameAsync(request, cancellation)));
+    }
+
+    @PostMapping("/organize")
+    public ResponseEntity<?> organize(@Valid @RequestBody final OrganizeRequest request,
+            @RequestParam(required = false) final Long timeoutSeconds) {
+        return accepted(jobService.submit("organize", timeout(timeoutSeconds),
+            cancellation -> fileOperationsService.executeOrganizeAsync(request, cancellation)));
+    }
+
+    @PostMapping("/extract")
+    public ResponseEntity<?> extract(@Valid @RequestBody final ExtractRequest request,
+            @RequestParam(required = false) final Long timeoutSeconds) {
+        return accepted(jobService.submit("extract", timeout(timeoutSeconds),
+            cancellation -> fileOperationsService.executeExtractAsync(request, cancellation)));
+    }
+
+    @PostMapping("/photo-organize")
+    public ResponseEntity<?> organizePhotos(@Valid @RequestBody final PhotoOrganizeRequest request,
+            @RequestParam(required = false) final Long timeoutSeconds) {
+        return accepted(jobService.submit("photo-organize", timeout(timeoutSeconds),
+            cancellation -> fileOperationsService.executePhotoOrganizationAsync(request, cancellation)));
+    }
+
+    @PostMapping("/photo-relayout")
+    public ResponseEntity<?> relayoutPhotos(@Valid @RequestBody final PhotoRelayoutRequest request,
+            @RequestParam(required = false) final Long timeoutSeconds) {
+        return accepted(jobService.submit("photo-relayout", timeout(timeoutSeconds),
+            cancellation -> fileOperationsService.executePhotoRelayoutAsync(request, cancellation)));
+    }
+
+    @PostMapping("/bulk-rename")
+    public ResponseEntity<?> bulkRename(@Valid @RequestBody final BulkRenameRequest request,
+            @RequestParam(required = false) final Long timeoutSeconds) {
+        return accepted(jobService.submit("bulk-rename", timeout(timeoutSeconds),
+            cancellation -> fileOperationsService.executeBulkRenameAsync(request, cancellation)));
+    }
+
+    @PostMapping("/find-duplicates")
+    public ResponseEntity<?> findDuplicates(@Valid @RequestBody final DuplicateRequest request,
+            @RequestParam(required = false) final Long timeoutSeconds) {
+        return accepted(jobService.submit("find-duplicates", timeout(timeoutSeconds),
+            cancellation -> fileOperationsService.executeFindDuplicatesAsync(request, cancellation)));
+    }
+
+    @GetMapping
+    public ResponseEntity<?> listJobs() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "jobs", jobService.getJobs()
+        ));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable final String jobId) {
+        final Job job = jobService.getJob(jobId);
+        if (job == null) {
+            return notFound(jobId);
+        }
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "job", job
+        ));
+    }
+
+    /**
+     * Returns the result of a succeeded job; 409 Conflict while it is queued or running, or when it failed or
+     * was cancelled.
+     */
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<?> getResult(@PathVariable final String jobId) {
+        final Job job = jobService.getJob(jobId);
+        if (job == null) {
+            return notFound(jobId);
+        }
+        if (job.getStatus() != Job.Status.SUCCEEDED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "success", false,
+                "message", job.getStatus().isFinished()
+                    ? "Job " + job.getStatus().name().toLowerCase() + ": " + job.getError()
+                    : "Job not finished: " + job.getStatus(),
+                "job", job
+            ));
+        }
+        final Object result = jobService.getResult(jobId);
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "job", job,
+            "result", result != null ? result : Map.of()
+        ));
+    }
+
+    /**
+     * Cancels a job: a queued job never starts, a running one stops at its next file.
+     */
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<?> cancel(@PathVariable final String jobId) {
+        final Job job = jobService.cancel(jobId);
+        if (job == null) {
+            return notFound(jobId);
+        }
+        if (job.getStatus().isFinished() && job.getStatus() != Job.Status.CANCELLED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "success", false,
+                "message", "Job already finished: " + job.getStatus(),
+                "job", job
+            ));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+            "success", true,
+            "message", job.getStatus() == Job.Status.CANCELLED ? "Job cancelled" : "Job cancellation requested",
+            "job", job
+        ));
+    }
+
+    private static Duration timeout(final Long timeoutSeconds) {
+        if (timeoutSeconds == null) {
+            return null;
+        }
+        if (timeoutSeconds <= 0) {
+            throw new IllegalArgumentException("timeoutSeconds must be positive");
+        }
+        return Duration.ofSeconds(timeoutSeconds);
+    }
+
+    private static ResponseEntity<?> accepted(final Job job) {
+        log.info("Job {} submitted: {}", job.getId(), job.getType());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+            "success", true,
+            "message", "Job submitted",
+            "jobId", job.getId(),
+            "status", job.getStatus()
+        ));
+    }
+
+    private static ResponseEntity<?> notFound(final String jobId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+            "success", false,
+            "message", "Job not found or expired: " + jobId
+        ));
+    }
+
+}
@@ -0,0 +1,52 @@
+package ca.joaoborges.filemanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for bulk rename operation
+ *
+ * Contains validated parameters for renaming every file whose name matches a regular expression.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRenameRequest {
+
+    /**
+     * Directory containing the files to rename
+     */
+    @NotBlank(message = "Directory cannot be empty")
+    @Pattern(
+        regexp = "^[^<>:\"|?*\\x00-\\x1F]+$",
+        message = "Directory contains invalid characters"
+    )
+    private String directory;
+
+    /**
+     * Regular expression matched against each file name, e.g. "\\.HEIC"
+     */
+    @NotBlank(message = "Pattern cannot be empty")
+    private String pattern;
+
+    /**
+     * Replacement for each match; may refer to groups as $1. Empty removes the matches.
+     */
+    private String replacement;
+
+    /**
+     * Whether to include files in subdirectories
+     */
+    private boolean includeSubDirectories;
+
+    /**
+     * Only compute the new names, without renaming
+     */
+    private boolean dryRun;
+
+}
@@ -1,5 +1,7 @@
 package ca.joaoborges.filemanager.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
@@ -38,4 +40,21 @@ public class OrganizeRequest {
     )
     private String destinationDirectory;
 
+    /**
+     * Optional organize strategy, e.g. "extension-group,first-letter".
+     * Falls back to one folder per first letter when blank.
+     */
+    @Pattern(
+        regexp = "^[a-z, -]*$",
+        message = "Strategy must be a comma separated list of strategy names"
+    )
+    private String strategy;
+
+    /**
+     * Optional number of files moved concurrently, overriding filemanager.move.workers
+     */
+    @Min(value = 1, message = "Workers must be at least 1")
+    @Max(value = 64, message = "Workers must be at most 64")
+    private Integer workers;
+
 }
@@ -1,5 +1,7 @@
 package ca.joaoborges.filemanager.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
@@ -38,4 +40,25 @@ public class PhotoOrganizeRequest {
     )
     private String destinationDirectory;
 
+    /**
+     * Optional folder layout template, e.g. "{year}/{month}-{monthName}".
+     * Falls back to filemanager.photo-organization.folder-layout when blank.
+     */
+    @Pattern(
+        regexp = "^[^<>:\"|?*\\x00-\\x1F]*$",
+        message = "Folder layout contains invalid characters"
+    )
+    @Pattern(
+        regexp = "^(?![/\\\\])(?!.*[/\\\\]$)(?!.*[/\\\\]{2})(?!(.*[/\\\\])?\\.{1,2}([/\\\\]|$)).*$",
+        message = "Folder layout must be a relative path without empty, '.' or '..' segments"
+    )
+    private String folderLayout;
+
+    /**
+     * Optional number of files moved concurrently, overriding filemanager.move.workers
+     */
+    @Min(value = 1, message = "Workers must be at least 1")
+    @Max(value = 64, message = "Workers must be at most 64")
+    private Integer workers;
+
 }
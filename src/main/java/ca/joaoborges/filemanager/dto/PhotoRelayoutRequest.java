@@ -0,0 +1,64 @@
+package ca.joaoborges.filemanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for photo re-layout operation
+ *
+ * Contains validated parameters for moving an organized photo tree to a new folder layout.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoRelayoutRequest {
+
+    /**
+     * Root of the organized photo tree
+     */
+    @NotBlank(message = "Directory cannot be empty")
+    @Pattern(
+        regexp = "^[^<>:\"|?*\\x00-\\x1F]+$",
+        message = "Directory contains invalid characters"
+    )
+    private String directory;
+
+    /**
+     * Current folder layout template.
+     * Falls back to filemanager.photo-organization.folder-layout when blank.
+     */
+    @Pattern(
+        regexp = "^[^<>:\"|?*\\x00-\\x1F]*$",
+        message = "Current folder layout contains invalid characters"
+    )
+    @Pattern(
+        regexp = "^(?![/\\\\])(?!.*[/\\\\]$)(?!.*[/\\\\]{2})(?!(.*[/\\\\])?\\.{1,2}([/\\\\]|$)).*$",
+        message = "Current folder layout must be a relative path without empty, '.' or '..' segments"
+    )
+    private String fromLayout;
+
+    /**
+     * New folder layout template, e.g. "{year}/{month}"
+     */
+    @NotBlank(message = "New folder layout cannot be empty")
+    @Pattern(
+        regexp = "^[^<>:\"|?*\\x00-\\x1F]+$",
+        message = "New folder layout contains invalid characters"
+    )
+    @Pattern(
+        regexp = "^(?![/\\\\])(?!.*[/\\\\]$)(?!.*[/\\\\]{2})(?!(.*[/\\\\])?\\.{1,2}([/\\\\]|$)).*$",
+        message = "New folder layout must be a relative path without empty, '.' or '..' segments"
+    )
+    private String toLayout;
+
+    /**
+     * Only compute the folder moves, without applying them
+     */
+    private boolean dryRun;
+
+}
@@ -1,6 +1,7 @@
 package ca.joaoborges.filemanager.exception;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
@@ -107,6 +108,24 @@ public class GlobalExceptionHandler {
             ));
     }
 
+    /**
+     * Handles RejectedExecutionException - a job queue is full
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<Map<String, Object>> handleRejectedExecutionException(
+            final RejectedExecutionException ex) {
+
+        log.warn("Job rejected: {}", ex.getMessage());
+
+        return ResponseEntity
+            .status(HttpStatus.TOO_MANY_REQUESTS)
+            .body(Map.of(
+                "success", false,
+                "message", ex.getMessage()
+            ));
+    }
+
     /**
      * Handles missing or unparseable request bodies (e.g. POST with no body).
      * Without this, the generic Exception handler below catches it and returns 500.
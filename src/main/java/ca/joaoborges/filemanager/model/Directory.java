@@ -8,6 +8,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static ca.joaoborges.filemanager.model.FilenameComparator.NAME_ORDER;
@@ -24,7 +25,6 @@ public class Directory {
     private static final FileFilter DIRECTORY_FILTER = File::isDirectory;
 
     private final String path;
-    private final Collection<File> allContent;
     private final File dir;
 
     public Directory(final String path) {
@@ -33,15 +33,21 @@ public class Directory {
         if (!dir.exists() || !dir.isDirectory()) {
             throw new IllegalArgumentException("Cannot create a Directory for an invalid path: " + path);
         }
-        this.allContent = new TreeSet<>(NAME_ORDER);
-        this.allContent.addAll(Arrays.asList(dir.listFiles()));
     }
 
     public String getPath() {
         return path;
     }
 
+    /**
+     * Lists every entry of the directory, sorted by name; the directory is read on each call.
+     */
     public Collection<File> getAllContent() {
+        final Collection<File> allContent = new TreeSet<>(NAME_ORDER);
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            allContent.addAll(Arrays.asList(files));
+        }
         return allContent;
     }
 
@@ -56,6 +62,18 @@ public class Directory {
         return listContentsInternal(filter, dir);
     }
 
+    /**
+     * Visits the contents matching the given filter in listing order, without collecting or sorting them first.
+     */
+    public void forEachContent(final FilenameFilter filter, final Consumer<File> action) {
+        final File[] files = dir.listFiles(filter);
+        if (files != null) {
+            for (final File file : files) {
+                action.accept(file);
+            }
+        }
+    }
+
     public List<File> listContentsRecursively(final FilenameFilter filter) {
         final List<File> files = new ArrayList<>();
         listContentsRecursively(dir, filter, files);
@@ -63,6 +81,14 @@ public class Directory {
         return files;
     }
 
+    /**
+     * Visits the contents matching the given filter in this directory and all subdirectories, as each directory is
+     * listed. Nothing is collected or sorted, so the first files are handed over before the walk completes.
+     */
+    public void forEachContentRecursively(final FilenameFilter filter, final Consumer<File> action) {
+        forEachContentRecursively(dir, filter, action);
+    }
+
     /**
      * Lists the names of the directory contents matching the given filter, sorted by name.
      */
@@ -93,4 +119,23 @@ public class Directory {
         }
     }
 
+    private static void forEachContentRecursively(final File dir, final FilenameFilter filter,
+                                                  final Consumer<File> action) {
+        // one listing per directory serves both the filter and the descent
+        final File[] entries = dir.listFiles();
+        if (entries == null) {
+            return;
+        }
+        for (final File entry : entries) {
+            if (filter == null || filter.accept(dir, entry.getName())) {
+                action.accept(entry);
+            }
+        }
+        for (final File entry : entries) {
+            if (entry.isDirectory()) {
+                forEachContentRecursively(entry, filter, action);
+            }
+        }
+    }
+
 }
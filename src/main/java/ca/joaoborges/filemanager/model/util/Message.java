@@ -1,16 +1,25 @@
 package ca.joaoborges.filemanager.model.util;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.ListResourceBundle;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
-import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Central locator for messages in resource catalogs.
+ * <p>
+ * The catalogs are held in an immutable snapshot: the bundled ones are read once, when the class is loaded, and any
+ * other catalog on its first use. Lookups read the current snapshot without locking or allocating;
+ * {@link #reload()} reads every catalog again and swaps the whole snapshot at once, so a reader sees either the old
+ * or the new values, never a mix. Catalogs are read for the default locale; the locale parameters are kept for
+ * compatibility.
  */
 public class Message {
 
@@ -26,18 +35,38 @@ public class Message {
     public static final String REGEXES_TO_FILTER = PREFIX + "RegexesToFilter";
     public static final String APP_INFO = "application";
 
-    private static final Map<String, ResourceBundle> cache = new HashMap<>();
+    private static final List<String> BUNDLED = List.of(EXTENSION_GROUPS, STRINGS_TO_FILTER, REGEXES_TO_FILTER);
+
+    // catalog name -> immutable message map, in key order
+    private static final AtomicReference<Map<String, Map<String, String>>> catalogs =
+            new AtomicReference<>(load(BUNDLED));
 
     /**
-     * Returns the {@link ResourceBundle} for the given catalog.
+     * Returns the messages of the given catalog, keyed by id in key order. The map is immutable.
      */
-    public static ResourceBundle getLocalizer(final String catalog, final Locale locale) throws MissingResourceException {
-        ResourceBundle bundle = cache.get(catalog);
-        if (bundle == null) {
-            bundle = ResourceBundle.getBundle(catalog);
-            cache.put(catalog, bundle);
+    public static Map<String, String> getCatalog(final String catalog) throws MissingResourceException {
+        final Map<String, String> messages = catalogs.get().get(catalog);
+        if (messages != null) {
+            return messages;
         }
-        return bundle;
+        // first use of a catalog that is not bundled: load it and publish a snapshot including it
+        final Map<String, String> loaded = read(catalog);
+        return catalogs.updateAndGet(current -> {
+            if (current.containsKey(catalog)) {
+                return current;
+            }
+            final Map<String, Map<String, String>> next = new HashMap<>(current);
+            next.put(catalog, loaded);
+            return Collections.unmodifiableMap(next);
+        }).get(catalog);
+    }
+
+    /**
+     * Reads every known catalog again and replaces the snapshot; lookups in progress keep the previous one.
+     */
+    public static void reload() {
+        ResourceBundle.clearCache();
+        catalogs.set(load(new ArrayList<>(catalogs.get().keySet())));
     }
 
     /**
@@ -50,30 +79,11 @@ public class Message {
     /**
      * Returns a message by its id, in the given locale; falls back to the default locale.
      */
-    public static String getMessage(final String catalog, final String msgID, Locale locale) {
-        if (locale == null) {
-            locale = new Locale(LOCALE_DEFAULT.getLanguage(), LOCALE_DEFAULT.getCountry());
-        }
-
-        String message = "";
-        try {
-            message = getLocalizer(catalog, locale).getString(msgID);
-        } catch (final MissingResourceException ignored) {
-            if (locale.equals(LOCALE_DEFAULT)) {
-                return "Message not found. Message ID: " + msgID + " in catalog: " + catalog + ", for locale: "
-                        + locale.toString();
-            }
-        }
-
-        if (message.length() == 0) {
-            try {
-                message = getLocalizer(catalog, LOCALE_DEFAULT).getString(msgID);
-            } catch (final MissingResourceException ignored) {
-                if (locale.equals(LOCALE_DEFAULT)) {
-                    return "Message not found. Message ID: " + msgID + " in catalog: " + catalog + ", for locale: "
-                            + locale.toString() + " nor in the default locale.";
-                }
-            }
+    public static String getMessage(final String catalog, final String msgID, final Locale locale) {
+        final String message = getMessageOrNull(catalog, msgID, locale);
+        if (message == null) {
+            return "Message not found. Message ID: " + msgID + " in catalog: " + catalog + ", for locale: "
+                    + (locale != null ? locale : LOCALE_DEFAULT);
         }
         return message;
     }
@@ -108,7 +118,7 @@ public class Message {
      */
     public static String getMessage(final String catalog, final String msgID, final Object arg, final Locale locale) {
         final Object[] args = { arg };
-        return getMessage(catalog, msgID, args);
+        return getMessage(catalog, msgID, args, locale);
     }
 
     /**
@@ -123,20 +133,14 @@ public class Message {
     /**
      * Returns a message by its id, in the given locale.
      * <p>
-     * Returns null when the message is not found, instead of a fallback message.
+     * Returns null when the message, or the catalog, is not found, instead of a fallback message.
      */
-    public static String getMessageOrNull(final String catalog, final String msgID, Locale locale) {
-        if (locale == null) {
-            locale = new Locale(LOCALE_DEFAULT.getLanguage(), LOCALE_DEFAULT.getCountry());
-        }
-
-        String message = "";
+    public static String getMessageOrNull(final String catalog, final String msgID, final Locale locale) {
         try {
-            message = getLocalizer(catalog, locale).getString(msgID);
+            return getCatalog(catalog).get(msgID);
         } catch (final MissingResourceException ignored) {
-            message = null;
+            return null;
         }
-        return message;
     }
 
     /**
@@ -151,24 +155,34 @@ public class Message {
      * <p>
      * Returns null when the value is not found, instead of a fallback message.
      */
-    public static String getConfigurationOrNull(final String catalog, final String msgID, Locale locale) {
-        if (locale == null) {
-            locale = new Locale(LOCALE_DEFAULT.getLanguage(), LOCALE_DEFAULT.getCountry());
-        }
-        String message = "";
-        try {
-            final ResourceBundle bundle = getLocalizer(catalog, locale);
-            if (bundle instanceof PropertyResourceBundle) {
-                message = (String) ((PropertyResourceBundle) bundle).handleGetObject(msgID);
-            } else if (bundle instanceof ListResourceBundle) {
-                message = (String) ((ListResourceBundle) bundle).handleGetObject(msgID);
-            } else {
-                message = getLocalizer(catalog, locale).getString(msgID);
+    public static String getConfigurationOrNull(final String catalog, final String msgID, final Locale locale) {
+        return getMessageOrNull(catalog, msgID, locale);
+    }
+
+    /**
+     * Reads the given catalogs into a new snapshot; catalogs that can no longer be found are left out.
+     */
+    private static Map<String, Map<String, String>> load(final List<String> names) {
+        final Map<String, Map<String, String>> loaded = new HashMap<>();
+        for (final String name : names) {
+            try {
+                loaded.put(name, read(name));
+            } catch (final MissingResourceException ignored) {
+                // looked up again, and reported, on its next use
             }
-        } catch (final MissingResourceException ignored) {
-            message = null;
         }
-        return message;
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    private static Map<String, String> read(final String catalog) throws MissingResourceException {
+        final ResourceBundle bundle = ResourceBundle.getBundle(catalog);
+        final List<String> keys = new ArrayList<>(bundle.keySet());
+        Collections.sort(keys);
+        final Map<String, String> messages = new LinkedHashMap<>();
+        for (final String key : keys) {
+            messages.put(key, bundle.getString(key));
+        }
+        return Collections.unmodifiableMap(messages);
     }
 
 }
@@ -17,7 +17,7 @@ public class NameUtils {
         return parts;
     }
 
-    public static String getBlockBehindChar(final String fullString, final int i) {
+    public static String getBlockBehindChar(final CharSequence fullString, final int i) {
         int beforeSpace = -1;
         int afterSpace = fullString.length();
 
@@ -34,7 +34,7 @@ public class NameUtils {
             }
         }
 
-        return fullString.substring(beforeSpace + 1, afterSpace);
+        return fullString.subSequence(beforeSpace + 1, afterSpace).toString();
     }
 
 }
@@ -0,0 +1,35 @@
+package ca.joaoborges.filemanager.operations.bulkRename;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.operations.interfaces.OperationResult;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Result of the bulk rename operation: the renames applied (or, for a dry run, planned), sorted by path.
+ */
+@RequiredArgsConstructor
+@Getter
+public class BulkRenameResult implements OperationResult {
+
+    private static final long serialVersionUID = -6650125734380192417L;
+
+    /**
+     * Original path to new path.
+     */
+    private final Map<String, String> renamedFiles = new TreeMap<>();
+
+    /**
+     * Original path to the reason the file was left alone, e.g. an existing file with the new name.
+     */
+    private final Map<String, String> skippedFiles = new TreeMap<>();
+
+    private final Directory directory;
+    private final String pattern;
+    private final String replacement;
+    private final boolean dryRun;
+
+}
@@ -0,0 +1,204 @@
+package ca.joaoborges.filemanager.operations.bulkRename;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.base.Strings;
+
+import ca.joaoborges.filemanager.exception.FileManagerException;
+import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import ca.joaoborges.filemanager.operations.common.LaneExecutor;
+import ca.joaoborges.filemanager.operations.common.OperationConstants;
+import ca.joaoborges.filemanager.operations.common.ResultCollector;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
+import ca.joaoborges.filemanager.operations.interfaces.FileOperation;
+import ca.joaoborges.filemanager.operations.renaming.RenameJournal;
+import ca.joaoborges.filemanager.operations.renaming.RenameJournal.Move;
+import ca.joaoborges.filemanager.operations.renaming.Renamer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Renames every file whose name matches a regular expression, replacing the matches; e.g. {@code \.HEIC} and an
+ * empty replacement strips ".HEIC" from the names.
+ * <p>
+ * The pattern is compiled once per run. The tree is walked as it is listed and the matching files of each directory
+ * are handed over as one batch to the lane of that directory ({@code filemanager.rename.workers} lanes), so
+ * directories are renamed in parallel while the renames of a directory run in order. Each batch goes through the
+ * {@link RenameJournal}. A file is skipped rather than renamed over an existing file or a name given out earlier in
+ * the run.
+ */
+@Service(value = OperationConstants.BULK_RENAME_OPERATION)
+@Slf4j
+public class BulkRenamer implements FileOperation<BulkRenameResult> {
+
+    /**
+     * The pattern, as a {@link Pattern} or a String.
+     */
+    public static final String PATTERN = "PATTERN";
+    public static final String REPLACEMENT = "REPLACEMENT";
+    public static final String INCLUDE_SUB_DIRECTORIES = Renamer.INCLUDE_SUB_DIRECTORIES;
+    public static final String DRY_RUN = "DRY_RUN";
+
+    @Autowired
+    private RenameJournal journal;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Autowired
+    private IoScheduler ioScheduler;
+
+    @Value("${filemanager.rename.workers:4}")
+    private int defaultWorkers;
+
+    @Override
+    public BulkRenameResult execute(final Map<String, Object> params) throws FileManagerException {
+        final Directory directory = (Directory) params.get(Directory.class.getName());
+        final Pattern pattern = pattern(params.get(PATTERN));
+        final String replacement = Strings.nullToEmpty((String) params.get(REPLACEMENT));
+        final boolean recursive = Boolean.TRUE.equals(params.get(INCLUDE_SUB_DIRECTORIES));
+        final boolean dryRun = Boolean.TRUE.equals(params.get(DRY_RUN));
+        final Integer workers = (Integer) params.get(Renamer.WORKERS);
+        final BulkRenameResult result = new BulkRenameResult(directory, pattern.pattern(), replacement, dryRun);
+        final ResultCollector<String, String> renamed = new ResultCollector<>();
+        final ResultCollector<String, String> skipped = new ResultCollector<>();
+        final CancellationToken cancellation = CancellationToken.of(params);
+
+        try (RenameJournal.Run run = dryRun ? null : journal.open(cancellation);
+             LaneExecutor lanes = workerThreads.lanes("BulkRenamer", workers != null ? workers : defaultWorkers)) {
+            final Batches batches = new Batches(files -> {
+                final File parent = files.get(0).getParentFile();
+                lanes.submit(parent, () -> {
+                    cancellation.throwIfCancelled();
+                    ioScheduler.yieldToInteractive();
+                    renameBatch(files, pattern, replacement, run, renamed, skipped);
+                });
+            });
+            final Consumer<File> feed = file -> {
+                cancellation.throwIfCancelled();
+                batches.add(file);
+            };
+            // only matching names reach the batches; the walk descends on its own
+            if (recursive) {
+                directory.forEachContentRecursively((dir, name) -> pattern.matcher(name).find(), feed);
+            } else {
+                directory.forEachContent((dir, name) -> pattern.matcher(name).find(), feed);
+            }
+            batches.flush();
+        }
+
+        renamed.drainTo(result.getRenamedFiles());
+        skipped.drainTo(result.getSkippedFiles());
+        log.info("Bulk rename of {} with {}: {} renamed, {} skipped{}", directory.getPath(), pattern,
+                 result.getRenamedFiles().size(), result.getSkippedFiles().size(), dryRun ? " (dry run)" : "");
+        return result;
+    }
+
+    private static Pattern pattern(final Object value) {
+        if (value instanceof final Pattern compiled) {
+            return compiled;
+        }
+        if (value instanceof final String regex && !regex.isEmpty()) {
+            return Pattern.compile(regex);
+        }
+        throw new IllegalArgumentException("A pattern is required for the bulk rename");
+    }
+
+    /**
+     * Renames the matching files of one directory, in listing order.
+     *
+     * @param run the journal of the run, or null for a dry run
+     */
+    private static void renameBatch(final List<File> files, final Pattern pattern, final String replacement,
+            final RenameJournal.Run run, final ResultCollector<String, String> renamed,
+            final ResultCollector<String, String> skipped) {
+        final Set<String> claimed = new HashSet<>();
+        final List<Move> moves = new ArrayList<>();
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                continue;
+            }
+            final String name = file.getName();
+            final String newName = pattern.matcher(name).replaceAll(replacement);
+            if (newName.equals(name)) {
+                continue;
+            }
+            if (newName.isBlank() || newName.indexOf('/') >= 0 || newName.indexOf(File.separatorChar) >= 0) {
+                skipped.put(file.getPath(), "Invalid new name: " + newName);
+                continue;
+            }
+            final Path target = file.toPath().resolveSibling(newName);
+            if (!claimed.add(newName) || Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+                skipped.put(file.getPath(), "Already exists: " + target);
+                continue;
+            }
+            moves.add(new Move(file.toPath(), target));
+        }
+
+        final boolean[] applied = run != null ? run.apply(moves) : null;
+        for (int i = 0; i < moves.size(); i++) {
+            final Move move = moves.get(i);
+            if (applied == null || applied[i]) {
+                renamed.put(move.from().toString(), move.to().toString());
+            } else {
+                skipped.put(move.from().toString(), "Could not rename to " + move.to());
+            }
+        }
+    }
+
+    /**
+     * Groups the visited files by directory. The walk lists one directory at a time, so a file from another
+     * directory closes the current batch.
+     */
+    private static final class Batches {
+
+        private final Consumer<List<File>> sink;
+        private List<File> current = new ArrayList<>();
+        private File parent;
+
+        private Batches(final Consumer<List<File>> sink) {
+            this.sink = sink;
+        }
+
+        private void add(final File file) {
+            if (!current.isEmpty() && !file.getParentFile().equals(parent)) {
+                flush();
+            }
+            parent = file.getParentFile();
+            current.add(file);
+        }
+
+        private void flush() {
+            if (!current.isEmpty()) {
+                sink.accept(current);
+                current = new ArrayList<>();
+            }
+        }
+    }
+
+    @Override
+    public String getOperationName() {
+        return "Bulk Rename";
+    }
+
+    @Override
+    public String getOperationID() {
+        return OperationConstants.BULK_RENAME_OPERATION;
+    }
+
+}
@@ -0,0 +1,236 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Case-insensitive multi-pattern matcher over a fixed set of literal strings.
+ * <p>
+ * The patterns are compiled once into a trie with failure links (Aho-Corasick), so finding or replacing every
+ * occurrence of all of them is a single pass over the text, whatever the number of patterns. Matching compares
+ * lowercase characters. Instances are immutable and safe to share between threads.
+ */
+public final class AhoCorasick {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final int[] NO_STATES = new int[0];
+
+    // per state: sorted transition characters and their target states
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] failure;
+    // length of the longest pattern ending at the state, following failure links; 0 when none
+    private final int[] longestOutput;
+    // length of the pattern spelled by the state itself; 0 when the state is not a pattern end
+    private final int[] terminal;
+    private final int patterns;
+
+    /**
+     * Compiles the patterns; empty and null patterns are ignored.
+     */
+    public AhoCorasick(final Collection<String> patterns) {
+        final List<StringBuilder> rawKeys = new ArrayList<>();
+        final List<List<Integer>> rawTargets = new ArrayList<>();
+        final List<Integer> rawTerminal = new ArrayList<>();
+        rawKeys.add(new StringBuilder());
+        rawTargets.add(new ArrayList<>());
+        rawTerminal.add(0);
+        int count = 0;
+
+        for (final String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            final String lower = pattern.toLowerCase(Locale.ROOT);
+            int state = 0;
+            for (int i = 0; i < lower.length(); i++) {
+                final char c = lower.charAt(i);
+                final int index = rawKeys.get(state).indexOf(String.valueOf(c));
+                if (index >= 0) {
+                    state = rawTargets.get(state).get(index);
+                } else {
+                    final int created = rawKeys.size();
+                    rawKeys.add(new StringBuilder());
+                    rawTargets.add(new ArrayList<>());
+                    rawTerminal.add(0);
+                    rawKeys.get(state).append(c);
+                    rawTargets.get(state).add(created);
+                    state = created;
+                }
+            }
+            rawTerminal.set(state, lower.length());
+            count++;
+        }
+
+        final int states = rawKeys.size();
+        this.patterns = count;
+        this.keys = new char[states][];
+        this.targets = new int[states][];
+        this.terminal = new int[states];
+        for (int state = 0; state < states; state++) {
+            freeze(state, rawKeys.get(state), rawTargets.get(state));
+            terminal[state] = rawTerminal.get(state);
+        }
+
+        // breadth-first failure links; a state's outputs include those of its failure state
+        this.failure = new int[states];
+        this.longestOutput = new int[states];
+        final Deque<Integer> queue = new ArrayDeque<>();
+        for (final int child : targets[0]) {
+            longestOutput[child] = terminal[child];
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            for (int i = 0; i < keys[state].length; i++) {
+                final int child = targets[state][i];
+                int fallback = failure[state];
+                int next = step(fallback, keys[state][i]);
+                while (next < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                    next = step(fallback, keys[state][i]);
+                }
+                failure[child] = next < 0 ? 0 : next;
+                longestOutput[child] = Math.max(terminal[child], longestOutput[failure[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of distinct non-empty patterns.
+     */
+    public int size() {
+        return patterns;
+    }
+
+    /**
+     * Returns whether the text contains at least one of the patterns.
+     */
+    public boolean containsAny(final CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, Character.toLowerCase(text.charAt(i)));
+            if (longestOutput[state] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the text starts with at least one of the patterns.
+     */
+    public boolean matchesPrefixOf(final CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+            if (state < 0) {
+                return false;
+            }
+            if (terminal[state] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the text is exactly one of the patterns.
+     */
+    public boolean matchesExactly(final CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length() && state >= 0; i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+        }
+        return state > 0 && terminal[state] == text.length();
+    }
+
+    /**
+     * Replaces every occurrence of the patterns with the replacement, appending the result to the target.
+     * Overlapping occurrences are resolved leftmost first, longest first.
+     *
+     * @return whether anything was replaced
+     */
+    public boolean replaceAll(final CharSequence text, final String replacement, final StringBuilder target) {
+        final int length = text.length();
+        // longest pattern starting at each position, found while scanning
+        int[] starting = null;
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            state = next(state, Character.toLowerCase(text.charAt(i)));
+            // walk the output chain; every pattern ending here is a candidate
+            for (int output = state; output != 0 && longestOutput[output] > 0; output = failure[output]) {
+                if (terminal[output] > 0) {
+                    if (starting == null) {
+                        starting = new int[length];
+                    }
+                    final int start = i - terminal[output] + 1;
+                    starting[start] = Math.max(starting[start], terminal[output]);
+                }
+            }
+        }
+        if (starting == null) {
+            target.append(text);
+            return false;
+        }
+        int i = 0;
+        while (i < length) {
+            if (starting[i] > 0) {
+                target.append(replacement);
+                i += starting[i];
+            } else {
+                target.append(text.charAt(i));
+                i++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convenience form of {@link #replaceAll(CharSequence, String, StringBuilder)}.
+     */
+    public String replaceAll(final String text, final String replacement) {
+        final StringBuilder result = new StringBuilder(text.length());
+        return replaceAll(text, replacement, result) ? result.toString() : text;
+    }
+
+    private int next(int state, final char c) {
+        int next = step(state, c);
+        while (next < 0 && state != 0) {
+            state = failure[state];
+            next = step(state, c);
+        }
+        return next < 0 ? 0 : next;
+    }
+
+    private int step(final int state, final char c) {
+        final int index = Arrays.binarySearch(keys[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    private void freeze(final int state, final StringBuilder rawKeys, final List<Integer> rawTargets) {
+        if (rawKeys.isEmpty()) {
+            keys[state] = NO_KEYS;
+            targets[state] = NO_STATES;
+            return;
+        }
+        final Integer[] order = new Integer[rawKeys.length()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> Character.compare(rawKeys.charAt(first), rawKeys.charAt(second)));
+        keys[state] = new char[order.length];
+        targets[state] = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[state][i] = rawKeys.charAt(order[i]);
+            targets[state][i] = rawTargets.get(order[i]);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import ca.joaoborges.filemanager.exception.OperationCancelledException;
+
+/**
+ * Lets a running operation be stopped from another thread, or once a deadline passed.
+ * <p>
+ * Cancellation is cooperative: operations call {@link #throwIfCancelled()} before each file (and copies between
+ * chunks), so a cancelled run stops at the next file boundary and never leaves a file half moved or renamed.
+ * Passed to operations as the {@link OperationConstants#CANCELLATION} parameter, optionally with a
+ * {@link OperationConstants#DEADLINE}; see {@link #of(Map)}. Safe to use from any thread.
+ */
+public final class CancellationToken {
+
+    /**
+     * A token that is never cancelled.
+     */
+    public static final CancellationToken NONE = new CancellationToken(null, null);
+
+    private final CancellationToken parent;
+    private final Instant deadline;
+    private volatile String reason;
+
+    public CancellationToken() {
+        this(null, null);
+    }
+
+    private CancellationToken(final CancellationToken parent, final Instant deadline) {
+        this.parent = parent;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns the token of an operation: the {@link OperationConstants#CANCELLATION} parameter, bounded by the
+     * {@link OperationConstants#DEADLINE} parameter ({@link Instant} or {@link Duration} from now) when present.
+     */
+    public static CancellationToken of(final Map<String, Object> params) {
+        final Object token = params.get(OperationConstants.CANCELLATION);
+        final CancellationToken cancellation = token instanceof final CancellationToken given ? given : NONE;
+        final Object deadline = params.get(OperationConstants.DEADLINE);
+        if (deadline instanceof final Instant instant) {
+            return cancellation.withDeadline(instant);
+        }
+        if (deadline instanceof final Duration timeout) {
+            return cancellation.withDeadline(Instant.now().plus(timeout));
+        }
+        return cancellation;
+    }
+
+    /**
+     * Returns a token cancelled with this one, and also once the deadline passed.
+     */
+    public CancellationToken withDeadline(final Instant deadline) {
+        return new CancellationToken(this, deadline);
+    }
+
+    /**
+     * Requests the cancellation; the first reason given is kept.
+     */
+    public void cancel(final String why) {
+        if (this == NONE) {
+            throw new IllegalStateException("The NONE token cannot be cancelled");
+        }
+        if (reason == null) {
+            reason = why != null ? why : "Cancelled";
+        }
+    }
+
+    public boolean isCancelled() {
+        return reasonOrNull() != null;
+    }
+
+    /**
+     * @throws OperationCancelledException when cancelled or past the deadline
+     */
+    public void throwIfCancelled() {
+        final String why = reasonOrNull();
+        if (why != null) {
+            throw new OperationCancelledException(why);
+        }
+    }
+
+    private String reasonOrNull() {
+        if (reason != null) {
+            return reason;
+        }
+        if (deadline != null && Instant.now().isAfter(deadline)) {
+            return "Deadline exceeded: " + deadline;
+        }
+        return parent != null ? parent.reasonOrNull() : null;
+    }
+
+}
@@ -0,0 +1,18 @@
+package ca.joaoborges.filemanager.operations.common;
+
+/**
+ * Which threads run the file operations and their per-file tasks; see {@link WorkerThreads}.
+ */
+public enum ExecutionMode {
+
+    /**
+     * Fixed pools of platform threads; concurrency is bounded by the pool sizes.
+     */
+    PLATFORM,
+
+    /**
+     * A virtual thread per task; concurrency is bounded by permits per device and per operation.
+     */
+    VIRTUAL
+
+}
@@ -0,0 +1,193 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ca.joaoborges.filemanager.exception.FileManagerException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gives interactive file system requests priority over the per-file work of bulk operations on the same disks.
+ * <p>
+ * Interactive requests (directory listings, path validation) hold a {@link Ticket} while they touch the disk. Bulk
+ * operations call {@link #yieldToInteractive()} before each file and between copy chunks: while any interactive
+ * request is waiting or running, bulk work pauses there, so an interactive request only ever waits behind the file
+ * operations already in flight. A bulk task pauses at most the bulk latency target at a time, which bounds its
+ * starvation under a steady stream of interactive requests.
+ * <p>
+ * The queueing delay of each {@link IoClass} is recorded and reported against its latency target by
+ * {@link #getStats()}: every interactive request, and every bulk pause (calls that found nothing to wait for are
+ * not samples).
+ */
+@Component
+@Slf4j
+public class IoScheduler {
+
+    /**
+     * The classes of file system work, in priority order.
+     */
+    public enum IoClass {
+        INTERACTIVE,
+        BULK
+    }
+
+    private final Semaphore interactiveSlots;
+    // interactive requests waiting for a slot or holding one
+    private final AtomicInteger pendingInteractive = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition interactiveDone = lock.newCondition();
+    private final Map<IoClass, Delays> delays = new EnumMap<>(IoClass.class);
+
+    public IoScheduler(@Value("${filemanager.io-scheduler.interactive-target-ms:50}") final long interactiveTargetMs,
+                       @Value("${filemanager.io-scheduler.bulk-target-ms:2000}") final long bulkTargetMs,
+                       @Value("${filemanager.io-scheduler.max-interactive:8}") final int maxInteractive) {
+        this.interactiveSlots = new Semaphore(Math.max(1, maxInteractive), true);
+        delays.put(IoClass.INTERACTIVE, new Delays(interactiveTargetMs));
+        delays.put(IoClass.BULK, new Delays(Math.max(1, bulkTargetMs)));
+    }
+
+    /**
+     * Waits for an interactive slot; bulk work pauses until the returned ticket is closed.
+     *
+     * @throws FileManagerException when interrupted while waiting
+     */
+    public Ticket interactive() {
+        pendingInteractive.incrementAndGet();
+        final long queued = System.nanoTime();
+        try {
+            interactiveSlots.acquire();
+        } catch (final InterruptedException interrupted) {
+            interactiveDone();
+            Thread.currentThread().interrupt();
+            throw new FileManagerException("Interrupted while waiting for an interactive I/O slot", interrupted);
+        }
+        record(IoClass.INTERACTIVE, System.nanoTime() - queued);
+        final AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                interactiveSlots.release();
+                interactiveDone();
+            }
+        };
+    }
+
+    /**
+     * Pauses the calling bulk task while interactive requests are pending, for at most the bulk latency target.
+     * Returns at once when none is; an interrupt ends the pause and is left set for the caller.
+     */
+    public void yieldToInteractive() {
+        if (pendingInteractive.get() == 0) {
+            return;
+        }
+        final long queued = System.nanoTime();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(delays.get(IoClass.BULK).targetMs);
+        boolean paused = false;
+        lock.lock();
+        try {
+            while (pendingInteractive.get() > 0 && remaining > 0) {
+                paused = true;
+                remaining = interactiveDone.awaitNanos(remaining);
+            }
+        } catch (final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        if (paused) {
+            record(IoClass.BULK, System.nanoTime() - queued);
+        }
+    }
+
+    /**
+     * Returns the queueing delay of each class since startup.
+     */
+    public Map<IoClass, QueueingDelay> getStats() {
+        final Map<IoClass, QueueingDelay> stats = new EnumMap<>(IoClass.class);
+        delays.forEach((ioClass, recorded) -> stats.put(ioClass, recorded.snapshot()));
+        return stats;
+    }
+
+    private void interactiveDone() {
+        if (pendingInteractive.decrementAndGet() == 0) {
+            lock.lock();
+            try {
+                interactiveDone.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void record(final IoClass ioClass, final long delayNanos) {
+        final Delays recorded = delays.get(ioClass);
+        recorded.record(delayNanos);
+        if (ioClass == IoClass.INTERACTIVE && delayNanos > TimeUnit.MILLISECONDS.toNanos(recorded.targetMs)) {
+            log.debug("Interactive request queued {} ms, over its {} ms target",
+                      TimeUnit.NANOSECONDS.toMillis(delayNanos), recorded.targetMs);
+        }
+    }
+
+    /**
+     * The queueing delay of a class: how long its requests waited before touching the disk.
+     *
+     * @param count      requests recorded
+     * @param meanMs     mean delay
+     * @param maxMs      longest delay
+     * @param targetMs   latency target of the class
+     * @param overTarget requests that waited longer than the target
+     */
+    public record QueueingDelay(long count, double meanMs, double maxMs, long targetMs, long overTarget) {}
+
+    /**
+     * An interactive slot; closing it lets bulk work resume once no other interactive request is pending. Closing
+     * it again has no effect.
+     */
+    @FunctionalInterface
+    public interface Ticket extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private static final class Delays {
+
+        private final long targetMs;
+        private final long targetNanos;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder overTarget = new LongAdder();
+
+        private Delays(final long targetMs) {
+            this.targetMs = targetMs;
+            this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMs);
+        }
+
+        private void record(final long delayNanos) {
+            count.increment();
+            totalNanos.add(delayNanos);
+            maxNanos.accumulate(delayNanos);
+            if (delayNanos > targetNanos) {
+                overTarget.increment();
+            }
+        }
+
+        private QueueingDelay snapshot() {
+            final long recorded = count.sum();
+            final double meanMs = recorded == 0 ? 0 : totalNanos.sum() / 1e6 / recorded;
+            return new QueueingDelay(recorded, meanMs, maxNanos.get() / 1e6, targetMs, overTarget.sum());
+        }
+    }
+
+}
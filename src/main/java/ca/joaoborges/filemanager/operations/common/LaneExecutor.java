@@ -0,0 +1,184 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import ca.joaoborges.filemanager.exception.FileManagerException;
+
+/**
+ * Runs the tasks of one operation run on a fixed number of lanes, each a single worker with a bounded queue.
+ * <p>
+ * Tasks are routed by key, so tasks sharing a key (e.g. a destination directory) run one after the other on the
+ * same lane while different keys proceed in parallel. When a lane's queue is full the submitting thread blocks,
+ * which lets a traversal feed the workers as it goes without buffering the whole listing. A task that feeds another
+ * lane executor this way gives its permits back while it waits for room and takes them again afterwards, so tasks
+ * blocked on a full queue never hold the device permits the tasks draining it need.
+ * <p>
+ * The first task failure stops the run: queued tasks are skipped and the failure is thrown once, by the next
+ * submission or else by {@link #close()} after the lanes drained. Throwing it only once keeps try-with-resources
+ * from adding the failure to itself as suppressed, which would replace it with an IllegalArgumentException.
+ */
+public final class LaneExecutor implements AutoCloseable {
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    // the permits of the lane task running on the current thread, if any
+    private static final ThreadLocal<HeldPermit> HELD = new ThreadLocal<>();
+
+    private final String name;
+    private final ThreadPoolExecutor[] lanes;
+    private final WorkerThreads permits;
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private final AtomicBoolean failureThrown = new AtomicBoolean();
+
+    /**
+     * @param name  prefix of the worker thread names
+     * @param lanes number of lanes (workers); values below 1 mean a single lane
+     */
+    public LaneExecutor(final String name, final int lanes) {
+        this(name, lanes, new ThreadFactoryBuilder()
+                .setNameFormat(name + "-lane-%d")
+                .setDaemon(true)
+                .build(), null);
+    }
+
+    /**
+     * @param threads creates the lane workers
+     * @param permits when not null, each task holds the permits of the key while it runs; see
+     *                {@link WorkerThreads#acquire(String, Path)}
+     */
+    LaneExecutor(final String name, final int lanes, final ThreadFactory threads, final WorkerThreads permits) {
+        this.name = name;
+        this.permits = permits;
+        this.lanes = new ThreadPoolExecutor[Math.max(1, lanes)];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                                                   new ArrayBlockingQueue<>(QUEUE_CAPACITY), threads,
+                                                   LaneExecutor::waitForRoom);
+        }
+    }
+
+    /**
+     * Queues the task on the lane of the key, blocking while that lane is full.
+     *
+     * @throws RuntimeException the failure of an earlier task, unless already thrown
+     */
+    public void submit(final Object key, final Runnable task) {
+        rethrowFailure();
+        final int lane = Math.floorMod(key.hashCode(), lanes.length);
+        lanes[lane].execute(() -> {
+            if (failure.get() != null) {
+                return;
+            }
+            try {
+                if (permits == null) {
+                    task.run();
+                } else {
+                    final HeldPermit held = new HeldPermit(permits, name, key);
+                    HELD.set(held);
+                    try {
+                        task.run();
+                    } finally {
+                        HELD.remove();
+                        held.release();
+                    }
+                }
+            } catch (final RuntimeException failed) {
+                failure.compareAndSet(null, failed);
+            }
+        });
+    }
+
+    public int getLanes() {
+        return lanes.length;
+    }
+
+    /**
+     * Waits for every queued task to finish and rethrows the first failure, unless a submission already threw it.
+     */
+    @Override
+    public void close() {
+        for (final ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (final ThreadPoolExecutor lane : lanes) {
+                while (!lane.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // keep waiting; large cross-device copies can take a while
+                }
+            }
+        } catch (final InterruptedException interrupted) {
+            for (final ThreadPoolExecutor lane : lanes) {
+                lane.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+            throw new FileManagerException("Interrupted while waiting for the workers", interrupted);
+        }
+        rethrowFailure();
+    }
+
+    private void rethrowFailure() {
+        final RuntimeException failed = failure.get();
+        if (failed != null && failureThrown.compareAndSet(false, true)) {
+            throw failed;
+        }
+    }
+
+    private static void waitForRoom(final Runnable task, final ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("Lane already closed");
+        }
+        final HeldPermit held = HELD.get();
+        if (held != null) {
+            held.release();
+        }
+        try {
+            lane.getQueue().put(task);
+        } catch (final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a free worker", interrupted);
+        } finally {
+            if (held != null) {
+                held.acquire();
+            }
+        }
+    }
+
+    /**
+     * The permits of a running lane task, which it can give back while it blocks.
+     */
+    private static final class HeldPermit {
+
+        private final WorkerThreads permits;
+        private final String operation;
+        private final Object key;
+        private WorkerThreads.Permit permit;
+
+        private HeldPermit(final WorkerThreads permits, final String operation, final Object key) {
+            this.permits = permits;
+            this.operation = operation;
+            this.key = key;
+            acquire();
+        }
+
+        private void acquire() {
+            permit = permits.acquire(operation, key);
+        }
+
+        private void release() {
+            if (permit != null) {
+                permit.close();
+                permit = null;
+            }
+        }
+    }
+
+}
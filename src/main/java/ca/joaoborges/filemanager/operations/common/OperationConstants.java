@@ -6,6 +6,24 @@ public interface OperationConstants {
     String ORGANIZATION_OPERATION = "ORGANIZATION_OPERATION";
     String EXTRACTION_OPERATION = "EXTRACTION_OPERATION";
     String PHOTO_ORGANIZATION_OPERATION = "PHOTO_ORGANIZATION_OPERATION";
+    String PHOTO_RELAYOUT_OPERATION = "PHOTO_RELAYOUT_OPERATION";
     String DUPLICATE_FINDER_OPERATION = "DUPLICATE_FINDER_OPERATION";
+    String BULK_RENAME_OPERATION = "BULK_RENAME_OPERATION";
+
+    /**
+     * Optional parameter overriding the number of concurrent movers (filemanager.move.workers).
+     */
+    String MOVE_WORKERS = "MOVE_WORKERS";
+
+    /**
+     * Optional parameter: the {@link CancellationToken} the operation checks before each file.
+     */
+    String CANCELLATION = "CANCELLATION";
+
+    /**
+     * Optional parameter: an {@link java.time.Instant}, or a {@link java.time.Duration} from the start, after
+     * which the operation is cancelled.
+     */
+    String DEADLINE = "DEADLINE";
 
 }
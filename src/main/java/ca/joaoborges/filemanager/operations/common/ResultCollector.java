@@ -0,0 +1,73 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects key/value outcomes of an operation from any number of threads without locking.
+ * <p>
+ * Every thread appends to its own buffer; buffers are registered once, on the first write of each thread, and
+ * merged into the operation result by {@link #drainTo(Map)}. The drain must happen after all writers finished
+ * (e.g. after the parallel stream returned or the worker futures completed), which also publishes their writes.
+ * A collector is meant for a single operation run.
+ *
+ * @param <K> the key type, e.g. the original path
+ * @param <V> the value type, e.g. the new path
+ */
+public final class ResultCollector<K, V> {
+
+    private final Queue<Buffer<K, V>> buffers = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<Buffer<K, V>> local = ThreadLocal.withInitial(() -> {
+        final Buffer<K, V> buffer = new Buffer<>();
+        buffers.add(buffer);
+        return buffer;
+    });
+
+    /**
+     * Records an outcome for the calling thread.
+     */
+    public void put(final K key, final V value) {
+        final Buffer<K, V> buffer = local.get();
+        buffer.keys.add(key);
+        buffer.values.add(value);
+    }
+
+    /**
+     * Returns the number of outcomes recorded so far; only exact once all writers finished.
+     */
+    public int size() {
+        int size = 0;
+        for (final Buffer<K, V> buffer : buffers) {
+            size += buffer.keys.size();
+        }
+        return size;
+    }
+
+    /**
+     * Moves every recorded outcome into the target map and empties the buffers.
+     *
+     * @return the number of outcomes moved
+     */
+    public int drainTo(final Map<K, V> target) {
+        int drained = 0;
+        for (final Buffer<K, V> buffer : buffers) {
+            for (int i = 0; i < buffer.keys.size(); i++) {
+                target.put(buffer.keys.get(i), buffer.values.get(i));
+            }
+            drained += buffer.keys.size();
+            buffer.keys.clear();
+            buffer.values.clear();
+        }
+        return drained;
+    }
+
+    private static final class Buffer<K, V> {
+
+        private final ArrayList<K> keys = new ArrayList<>();
+        private final ArrayList<V> values = new ArrayList<>();
+    }
+
+}
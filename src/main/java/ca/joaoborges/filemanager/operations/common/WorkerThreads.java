@@ -0,0 +1,200 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import ca.joaoborges.filemanager.exception.FileManagerException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the worker threads of the file operations according to the {@link ExecutionMode}.
+ * <p>
+ * In {@link ExecutionMode#PLATFORM} mode workers are pooled platform threads and the configured worker counts are
+ * the only limit. In {@link ExecutionMode#VIRTUAL} mode every task gets a virtual thread, so a task blocked on the
+ * file system costs no platform thread, and the limits become permits instead: a task holds one permit of its
+ * operation (shared by every run of that operation) and one of the device its path lives on while it runs.
+ */
+@Component
+@Slf4j
+public class WorkerThreads {
+
+    /**
+     * Platform threads, for code running outside the application context.
+     */
+    public static final WorkerThreads PLATFORM = new WorkerThreads(ExecutionMode.PLATFORM, 1, 1);
+
+    private static final Permit NO_PERMIT = () -> {
+        // nothing held
+    };
+
+    private final ExecutionMode mode;
+    private final int maxPerDevice;
+    private final int maxPerOperation;
+    private final Map<String, Semaphore> operations = new ConcurrentHashMap<>();
+    private final Map<Object, Semaphore> devices = new ConcurrentHashMap<>();
+    // directory -> device, so that a device is looked up once per directory rather than once per task
+    private final Cache<Path, Object> deviceOfDirectory = CacheBuilder.newBuilder().maximumSize(10_000).build();
+
+    public WorkerThreads(@Value("${filemanager.async.mode:PLATFORM}") final ExecutionMode mode,
+                         @Value("${filemanager.async.max-io-per-device:16}") final int maxPerDevice,
+                         @Value("${filemanager.async.max-tasks-per-operation:64}") final int maxPerOperation) {
+        this.mode = mode;
+        this.maxPerDevice = Math.max(1, maxPerDevice);
+        this.maxPerOperation = Math.max(1, maxPerOperation);
+        if (mode == ExecutionMode.VIRTUAL) {
+            log.info("Virtual worker threads: {} tasks per device, {} per operation", this.maxPerDevice,
+                     this.maxPerOperation);
+        }
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    public boolean isVirtual() {
+        return mode == ExecutionMode.VIRTUAL;
+    }
+
+    /**
+     * Returns the I/O permits of each device, which only bound tasks with virtual threads.
+     */
+    public int getMaxPerDevice() {
+        return maxPerDevice;
+    }
+
+    /**
+     * Returns a factory of threads named {@code name-N}: daemon platform threads or virtual threads.
+     */
+    public ThreadFactory factory(final String name) {
+        if (isVirtual()) {
+            return Thread.ofVirtual().name(name + "-", 0).factory();
+        }
+        return new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build();
+    }
+
+    /**
+     * Returns an executor for the tasks of one operation run: a pool of the given size, or a virtual thread per
+     * task. Virtual tasks should hold a {@link #acquire(String, Path) permit} while they run.
+     */
+    public ExecutorService executor(final String name, final int workers) {
+        if (isVirtual()) {
+            return Executors.newThreadPerTaskExecutor(factory(name));
+        }
+        return Executors.newFixedThreadPool(Math.max(1, workers), factory(name));
+    }
+
+    /**
+     * Returns the lanes of one operation run; see {@link LaneExecutor}. With virtual threads there are at least
+     * as many lanes as permits per operation, each task of a lane holding its permits while it runs.
+     */
+    public LaneExecutor lanes(final String name, final int lanes) {
+        if (isVirtual()) {
+            return new LaneExecutor(name, Math.max(lanes, maxPerOperation), factory(name + "-lane"), this);
+        }
+        return new LaneExecutor(name, lanes);
+    }
+
+    /**
+     * Waits for a permit of the operation and one of the device holding the path; a no-op with platform threads.
+     *
+     * @param path the file or directory the task works on, or null to take the operation permit only
+     * @throws FileManagerException when interrupted while waiting
+     */
+    public Permit acquire(final String operation, final Path path) {
+        if (!isVirtual()) {
+            return NO_PERMIT;
+        }
+        final Semaphore operationPermits =
+                operations.computeIfAbsent(operation, ignored -> new Semaphore(maxPerOperation));
+        final Semaphore devicePermits =
+                path != null ? devices.computeIfAbsent(deviceOf(path), ignored -> new Semaphore(maxPerDevice)) : null;
+        try {
+            operationPermits.acquire();
+            try {
+                if (devicePermits != null) {
+                    devicePermits.acquire();
+                }
+            } catch (final InterruptedException interrupted) {
+                operationPermits.release();
+                throw interrupted;
+            }
+        } catch (final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new FileManagerException("Interrupted while waiting for an I/O permit", interrupted);
+        }
+        return () -> {
+            if (devicePermits != null) {
+                devicePermits.release();
+            }
+            operationPermits.release();
+        };
+    }
+
+    /**
+     * Same as {@link #acquire(String, Path)} for a task keyed by a file (its directory's device) or by a path.
+     */
+    Permit acquire(final String operation, final Object key) {
+        if (key instanceof final Path path) {
+            return acquire(operation, path);
+        }
+        if (key instanceof final File file) {
+            return acquire(operation, file.getAbsoluteFile().toPath().getParent());
+        }
+        return acquire(operation, (Path) null);
+    }
+
+    /**
+     * Returns an identifier of the device holding the path, or of its closest existing ancestor.
+     */
+    private Object deviceOf(final Path path) {
+        final Path directory = path.toAbsolutePath();
+        final Object cached = deviceOfDirectory.getIfPresent(directory);
+        if (cached != null) {
+            return cached;
+        }
+        Path existing = directory;
+        while (existing.getParent() != null && !Files.exists(existing, LinkOption.NOFOLLOW_LINKS)) {
+            existing = existing.getParent();
+        }
+        Object device;
+        try {
+            // a stat on Unix; the file store lookup elsewhere
+            device = Files.getAttribute(existing, "unix:dev", LinkOption.NOFOLLOW_LINKS);
+        } catch (final UnsupportedOperationException | IllegalArgumentException | IOException notUnix) {
+            try {
+                device = Files.getFileStore(existing).name();
+            } catch (final IOException unknown) {
+                device = existing.getRoot() != null ? existing.getRoot().toString() : "";
+            }
+        }
+        deviceOfDirectory.put(directory, device);
+        return device;
+    }
+
+    /**
+     * Permits held by a task; released on close.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+}
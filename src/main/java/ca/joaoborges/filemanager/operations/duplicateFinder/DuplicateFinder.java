@@ -2,7 +2,9 @@ package ca.joaoborges.filemanager.operations.duplicateFinder;
 
 import ca.joaoborges.filemanager.exception.FileManagerException;
 import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
 import ca.joaoborges.filemanager.operations.interfaces.FileOperation;
+import ca.joaoborges.filemanager.operations.move.MoveSession;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -30,8 +32,9 @@ public class DuplicateFinder implements FileOperation<DuplicateFinderResult> {
     public DuplicateFinderResult execute(final Map<String, Object> params) throws FileManagerException {
         final Directory directory = (Directory) params.get(Directory.class.getName());
         final DuplicateFinderResult result = new DuplicateFinderResult(directory);
+        final CancellationToken cancellation = CancellationToken.of(params);
 
-        final File md5File = new File(directory.getDirectory(), "md5sumfiles.txt");
+        final File md5File = new File(directory.getDirectory(), MoveSession.DIGEST_MANIFEST);
         if (!md5File.exists()) {
             log.info("md5 file not found");
             return result;
@@ -41,6 +44,7 @@ public class DuplicateFinder implements FileOperation<DuplicateFinderResult> {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(FileUtils.openInputStream(md5File)))) {
             String line;
             while ((line = reader.readLine()) != null) {
+                cancellation.throwIfCancelled();
                 final String[] md5AndPath = line.trim().split("\\s", 2);
                 if (md5AndPath.length != 2) {
                     log.error("invalid line: {}", line);
@@ -60,7 +64,10 @@ public class DuplicateFinder implements FileOperation<DuplicateFinderResult> {
                 .filter(group -> group.size() > 1)
                 .flatMap(List::stream)
                 .filter(file -> FILE_WITH_INDEX.matcher(FilenameUtils.getBaseName(file.file().getName())).matches())
-                .forEach(file -> result.getFiles().put(file.file().toString(), file.md5sum()));
+                .forEach(file -> {
+                    cancellation.throwIfCancelled();
+                    result.getFiles().put(file.file().toString(), file.md5sum());
+                });
 
         return result;
     }
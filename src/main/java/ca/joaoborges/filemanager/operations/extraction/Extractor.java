@@ -1,56 +1,91 @@
 package ca.joaoborges.filemanager.operations.extraction;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
 import java.util.Map;
 
-import org.apache.commons.io.FileExistsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import ca.joaoborges.filemanager.exception.FileManagerException;
 import ca.joaoborges.filemanager.model.Directory;
 import ca.joaoborges.filemanager.model.ExtensionFilter;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.LaneExecutor;
 import ca.joaoborges.filemanager.operations.common.OperationConstants;
+import ca.joaoborges.filemanager.operations.common.ResultCollector;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
 import ca.joaoborges.filemanager.operations.interfaces.FileOperation;
+import ca.joaoborges.filemanager.operations.move.MoveEngine;
+import ca.joaoborges.filemanager.operations.move.MoveSession;
 import lombok.extern.slf4j.Slf4j;
 
 import static ca.joaoborges.filemanager.operations.common.OperationConstants.EXTRACTION_OPERATION;
-import static org.apache.commons.io.FileUtils.moveFile;
 
 @Service(value = OperationConstants.EXTRACTION_OPERATION)
 @Slf4j
 public class Extractor implements FileOperation<ExtractionResult> {
 
+    @Autowired
+    private MoveEngine moveEngine;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Value("${filemanager.move.workers:4}")
+    private int defaultWorkers;
+
     @Override
     public ExtractionResult execute(final Map<String, Object> params) throws FileManagerException {
         final Directory dirBase = (Directory) params.get("BASE_DIR");
         final Directory dirDest = (Directory) params.get("DEST_DIR");
         final ExtensionFilter filter = (ExtensionFilter) params.get(ExtensionFilter.class.getName());
-        // Keep acceptDirectories=false: the recursive walk descends via its own
-        // directory filter, so including dirs in the user filter would make us
-        // try to moveFile() a directory, which throws.
+        // Keep acceptDirectories=false: the recursive walk descends on its own,
+        // so including dirs in the user filter would make us try to move a directory.
+        final Integer workers = (Integer) params.get(OperationConstants.MOVE_WORKERS);
         final ExtractionResult result = new ExtractionResult(dirBase, dirDest);
+        final ResultCollector<String, String> movedFiles = new ResultCollector<>();
+        final Path baseRoot = dirBase.getDirectory().toPath();
+        final Path destRoot = dirDest.getDirectory().toPath();
+        final CancellationToken cancellation = CancellationToken.of(params);
 
-        // recursively scan the base directory looking for files with the given extensions;
-        // when found, move them to the same relative path under the destination directory
-        dirBase.listContentsRecursively(filter).forEach(file -> {
-            String newFileDirPath = file.getPath().replace(dirBase.getPath(), dirDest.getPath());
-            newFileDirPath = newFileDirPath.substring(0, newFileDirPath.lastIndexOf(File.separator));
-            final File newFileDir = new File(newFileDirPath);
-            newFileDir.mkdirs();
-            final File newFile = new File(newFileDir.getPath() + File.separator + file.getName());
-            try {
-                moveFile(file, newFile);
-                result.getMovedFiles().put(file.getPath(), newFile.getPath());
-            } catch (final FileExistsException logged) {
-                log.warn(logged.getMessage());
-            } catch (final IOException wrapped) {
-                throw new FileManagerException(wrapped.getMessage(), wrapped);
+        try (MoveSession moves = moveEngine.open(baseRoot, destRoot, cancellation)) {
+            // recursively scan the base directory looking for files with the given extensions;
+            // each one is handed to the mover of its destination directory while the walk goes on
+            try (LaneExecutor movers = workerThreads.lanes("Extractor", workers != null ? workers : defaultWorkers)) {
+                dirBase.forEachContentRecursively(filter, file -> {
+                    cancellation.throwIfCancelled();
+                    final Path source = file.toPath();
+                    if (source.startsWith(destRoot)) {
+                        // destination nested in the base directory: skip what was already extracted
+                        return;
+                    }
+                    final Path target = destRoot.resolve(baseRoot.relativize(source));
+                    movers.submit(target.getParent(), () -> moveFile(moves, source, target, movedFiles));
+                });
             }
-        });
+            movedFiles.drainTo(result.getMovedFiles());
+        } catch (final IOException wrapped) {
+            throw new FileManagerException(wrapped.getMessage(), wrapped);
+        }
         return result;
     }
 
+    private static void moveFile(final MoveSession moves, final Path source, final Path target,
+                                 final ResultCollector<String, String> movedFiles) {
+        try {
+            moves.ensureDirectory(target.getParent());
+            moves.move(source, target);
+            movedFiles.put(source.toString(), target.toString());
+        } catch (final FileAlreadyExistsException logged) {
+            log.warn("Destination file {} already exists", logged.getMessage());
+        } catch (final IOException wrapped) {
+            throw new FileManagerException(wrapped.getMessage(), wrapped);
+        }
+    }
+
     @Override
     public String getOperationName() {
         return "Extract Files of a Specific Type";
@@ -4,6 +4,9 @@ import java.io.Serializable;
 import java.util.Map;
 
 import ca.joaoborges.filemanager.exception.FileManagerException;
+import ca.joaoborges.filemanager.exception.OperationCancelledException;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.OperationConstants;
 
 /**
  * Generic operation executed over files.
@@ -14,10 +17,14 @@ public interface FileOperation<R extends OperationResult> extends Serializable {
 
     /**
      * Executes the operation.
+     * <p>
+     * Operations honour the {@link OperationConstants#CANCELLATION} and {@link OperationConstants#DEADLINE}
+     * parameters through {@link CancellationToken#of(Map)}, checking the token before each file.
      *
      * @param params the operation parameters
      * @return the result, or null when the operation produces none
-     * @throws FileManagerException when the operation fails
+     * @throws OperationCancelledException when cancelled or past the deadline; files already processed stay so
+     * @throws FileManagerException        when the operation fails
      */
     R execute(Map<String, Object> params) throws FileManagerException;
 
@@ -0,0 +1,49 @@
+package ca.joaoborges.filemanager.operations.move;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Destination directories already created (or found) during one operation run.
+ * <p>
+ * Each directory costs one {@link Files#createDirectories} call for the whole run; later requests are a lock-free
+ * map lookup, so moving many files into the same folders does not repeat the stat/mkdir system calls.
+ * Safe to use from several threads at once.
+ */
+public final class EnsuredDirectories {
+
+    private final ConcurrentHashMap<Path, Boolean> ensured = new ConcurrentHashMap<>();
+
+    /**
+     * Makes sure the directory exists, creating it and its parents on first request.
+     *
+     * @return the directory
+     * @throws IOException when the directory cannot be created
+     */
+    public Path ensure(final Path directory) throws IOException {
+        if (ensured.containsKey(directory)) {
+            return directory;
+        }
+        try {
+            ensured.computeIfAbsent(directory, missing -> {
+                try {
+                    Files.createDirectories(missing);
+                    return Boolean.TRUE;
+                } catch (final IOException wrapped) {
+                    throw new UncheckedIOException(wrapped);
+                }
+            });
+        } catch (final UncheckedIOException unwrapped) {
+            throw unwrapped.getCause();
+        }
+        return directory;
+    }
+
+    public int size() {
+        return ensured.size();
+    }
+
+}
@@ -0,0 +1,18 @@
+package ca.joaoborges.filemanager.operations.move;
+
+/**
+ * When copied bytes are forced to the storage device during cross-device moves.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Never force; the source may be deleted while the copy is still in the page cache.
+     */
+    NONE,
+
+    /**
+     * Force every copied file before its source is deleted.
+     */
+    PER_FILE
+
+}
@@ -0,0 +1,145 @@
+package ca.joaoborges.filemanager.operations.move;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves files for the organize, extract and photo organization operations.
+ * <p>
+ * {@link #open(Path, Path)} detects once per operation whether source and destination share a {@link FileStore}.
+ * Same-device moves are a single atomic rename; cross-device moves are copied with {@code FileChannel.transferTo}
+ * (which lets the kernel use copy_file_range/sendfile), striped over several threads for large files, with the
+ * timestamps preserved and the configured {@link FsyncPolicy} applied before the source is deleted. Cross-device
+ * copies can also be checksummed on the fly and verified according to the {@link VerifyPolicy}.
+ */
+@Component
+@Slf4j
+public class MoveEngine {
+
+    private static final int COPY_BUFFER_SIZE = 1024 * 1024;
+
+    private final long stripedCopyThreshold;
+    private final int copyStripes;
+    private final FsyncPolicy fsyncPolicy;
+    private final VerifyPolicy verifyPolicy;
+    private final ExecutorService stripeExecutor;
+    private final IoScheduler ioScheduler;
+    // direct buffers are allocated on first use and kept for reuse, at most one per I/O permit of a device, so the
+    // native memory they hold does not grow with the number of (virtual) threads that ever digested a file
+    private final Semaphore copyBufferPermits;
+    private final Queue<ByteBuffer> idleCopyBuffers = new ConcurrentLinkedQueue<>();
+
+    public MoveEngine(@Value("${filemanager.move.striped-copy-threshold-mb:256}") final long stripedCopyThresholdMb,
+                      @Value("${filemanager.move.copy-stripes:4}") final int copyStripes,
+                      @Value("${filemanager.move.fsync:PER_FILE}") final FsyncPolicy fsyncPolicy,
+                      @Value("${filemanager.move.verify:READ_BACK}") final VerifyPolicy verifyPolicy,
+                      final WorkerThreads workerThreads, final IoScheduler ioScheduler) {
+        this.stripedCopyThreshold = stripedCopyThresholdMb * 1024 * 1024;
+        this.copyStripes = Math.max(1, copyStripes);
+        this.fsyncPolicy = fsyncPolicy;
+        this.verifyPolicy = verifyPolicy;
+        this.ioScheduler = ioScheduler;
+        this.copyBufferPermits = new Semaphore(workerThreads.getMaxPerDevice());
+        final ThreadFactory stripes = workerThreads.factory("MoveEngine-stripe");
+        this.stripeExecutor = workerThreads.isVirtual()
+                ? Executors.newThreadPerTaskExecutor(stripes)
+                : Executors.newCachedThreadPool(stripes);
+    }
+
+    /**
+     * Opens a move session for an operation moving files from the source tree into the destination tree.
+     */
+    public MoveSession open(final Path sourceRoot, final Path destinationRoot) {
+        return open(sourceRoot, destinationRoot, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #open(Path, Path)}, for a session whose moves and copies stop once the token is cancelled.
+     */
+    public MoveSession open(final Path sourceRoot, final Path destinationRoot, final CancellationToken cancellation) {
+        final Boolean sameStore = sameFileStore(sourceRoot, destinationRoot);
+        log.debug("Move session {} -> {}: same file store = {}", sourceRoot, destinationRoot, sameStore);
+        return new MoveSession(this, sameStore, destinationRoot, cancellation);
+    }
+
+    long getStripedCopyThreshold() {
+        return stripedCopyThreshold;
+    }
+
+    IoScheduler getIoScheduler() {
+        return ioScheduler;
+    }
+
+    int getCopyStripes() {
+        return copyStripes;
+    }
+
+    FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    VerifyPolicy getVerifyPolicy() {
+        return verifyPolicy;
+    }
+
+    /**
+     * Takes a direct copy buffer from the pool, waiting while all of them are in use; give it back with
+     * {@link #releaseCopyBuffer(ByteBuffer)}.
+     */
+    ByteBuffer acquireCopyBuffer() throws InterruptedIOException {
+        try {
+            copyBufferPermits.acquire();
+        } catch (final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a copy buffer");
+        }
+        final ByteBuffer idle = idleCopyBuffers.poll();
+        return idle != null ? idle.clear() : ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+    }
+
+    void releaseCopyBuffer(final ByteBuffer buffer) {
+        idleCopyBuffers.offer(buffer);
+        copyBufferPermits.release();
+    }
+
+    ExecutorService getStripeExecutor() {
+        return stripeExecutor;
+    }
+
+    /**
+     * Returns whether both paths live on the same file store, or null when it cannot be determined.
+     */
+    private static Boolean sameFileStore(final Path sourceRoot, final Path destinationRoot) {
+        try {
+            return Files.getFileStore(sourceRoot).equals(Files.getFileStore(destinationRoot));
+        } catch (final IOException logged) {
+            log.warn("Cannot compare file stores of {} and {}: {}", sourceRoot, destinationRoot, logged.getMessage());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stripeExecutor.shutdownNow();
+    }
+
+}
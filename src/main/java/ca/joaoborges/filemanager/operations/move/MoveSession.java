@@ -0,0 +1,340 @@
+package ca.joaoborges.filemanager.operations.move;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import ca.joaoborges.filemanager.exception.OperationCancelledException;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the files of a single operation run; see {@link MoveEngine}.
+ * <p>
+ * Safe to use from several threads at once. A move never replaces an existing destination file. Destination
+ * directories go through {@link #ensureDirectory(Path)}, which creates each one at most once per run. Closing the
+ * session flushes the digests recorded for verified cross-device copies.
+ * <p>
+ * Once the session's cancellation token is cancelled, moves throw {@link OperationCancelledException}; a copy in
+ * progress stops at its next chunk and its partial destination is removed, leaving the source in place. Moves and
+ * copy chunks also pause while interactive requests are pending; see {@link IoScheduler}.
+ */
+@Slf4j
+public final class MoveSession implements AutoCloseable {
+
+    /**
+     * Manifest of verified copies, in md5sum format, written at the destination root.
+     * It is the same file the duplicate finder reads.
+     */
+    public static final String DIGEST_MANIFEST = "md5sumfiles.txt";
+
+    // bytes handed to a single transferTo call, so that a cancellation is seen between chunks of a large file
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private final MoveEngine engine;
+    private final Boolean sameStore;
+    private final Path destinationRoot;
+    private final CancellationToken cancellation;
+    private final EnsuredDirectories directories = new EnsuredDirectories();
+    private BufferedWriter manifest;
+
+    MoveSession(final MoveEngine engine, final Boolean sameStore, final Path destinationRoot,
+                final CancellationToken cancellation) {
+        this.engine = engine;
+        this.sameStore = sameStore;
+        this.destinationRoot = destinationRoot;
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Moves a file to the given destination path; the parent directory must exist.
+     *
+     * @return the destination path
+     * @throws FileAlreadyExistsException when the destination already exists
+     * @throws IOException                when the move or its verification fails; the source is left in place
+     * @throws OperationCancelledException when the session was cancelled; the source is left in place
+     */
+    public Path move(final Path from, final Path to) throws IOException {
+        cancellation.throwIfCancelled();
+        engine.getIoScheduler().yieldToInteractive();
+        if (!Boolean.FALSE.equals(sameStore) && rename(from, to)) {
+            return to;
+        }
+        final String digest = copy(from, to);
+        if (digest != null) {
+            record(to, digest);
+        }
+        Files.delete(from);
+        return to;
+    }
+
+    /**
+     * Renames the file without ever replacing the destination, even one created concurrently: a rename(2) replaces
+     * silently, so the file is hard linked at its destination, which fails when the name is taken, and then unlinked
+     * from its source. A crash in between leaves both names, never none. On file systems without hard links the
+     * existence check and the rename are separate steps, so a destination created between them is replaced.
+     *
+     * @return false when the file has to be copied instead (another device, or no rename support)
+     */
+    private boolean rename(final Path from, final Path to) throws IOException {
+        try {
+            Files.createLink(to, from);
+        } catch (final FileAlreadyExistsException rethrown) {
+            throw rethrown;
+        } catch (final UnsupportedOperationException | FileSystemException noHardLinks) {
+            // no hard links here, or another device behind a nested mount point
+            log.trace("Hard link {} -> {} failed: {}", from, to, noHardLinks.toString());
+            return renameChecked(from, to);
+        }
+        try {
+            Files.delete(from);
+        } catch (final IOException rethrown) {
+            deleteQuietly(to);
+            throw rethrown;
+        }
+        return true;
+    }
+
+    private static boolean renameChecked(final Path from, final Path to) throws IOException {
+        if (Files.exists(to, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(to.toString());
+        }
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (final AtomicMoveNotSupportedException ignored) {
+            // a nested mount point or a file system without rename support; copy instead
+            log.debug("Atomic move not supported for {} -> {}, copying", from, to);
+            return false;
+        }
+    }
+
+    /**
+     * Makes sure a destination directory exists; see {@link EnsuredDirectories}.
+     */
+    public Path ensureDirectory(final Path directory) throws IOException {
+        return directories.ensure(directory);
+    }
+
+    public boolean isSameStore() {
+        return Boolean.TRUE.equals(sameStore);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (manifest != null) {
+            manifest.close();
+            manifest = null;
+        }
+    }
+
+    /**
+     * Copies the file and returns its MD5 digest, or null when the verify policy is {@link VerifyPolicy#NONE}.
+     */
+    private String copy(final Path from, final Path to) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(from, BasicFileAttributes.class);
+        final long size = attributes.size();
+        final VerifyPolicy verify = engine.getVerifyPolicy();
+        String digest = null;
+        // CREATE_NEW fails before anything is written when the destination exists, so only our own partial copy
+        // is ever removed below
+        boolean copied = false;
+        try (FileChannel out = FileChannel.open(to, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ)) {
+                if (verify != VerifyPolicy.NONE) {
+                    // the digest is taken from the bytes written, in order, so verified copies go through a
+                    // buffer instead of transferTo and are never striped
+                    digest = copyDigesting(in, out, size);
+                } else if (size >= engine.getStripedCopyThreshold() && engine.getCopyStripes() > 1) {
+                    copyStriped(from, to, size);
+                } else {
+                    transfer(in, out, 0, size);
+                }
+                if (verify != VerifyPolicy.NONE || engine.getFsyncPolicy() == FsyncPolicy.PER_FILE) {
+                    out.force(true);
+                }
+                if (verify == VerifyPolicy.READ_BACK) {
+                    final String stored = digestOf(to);
+                    if (!stored.equals(digest)) {
+                        throw new IOException("Checksum mismatch copying " + from + " to " + to + ": expected "
+                                + digest + ", found " + stored);
+                    }
+                }
+                copied = true;
+            } finally {
+                if (!copied) {
+                    deleteQuietly(to);
+                }
+            }
+        }
+        Files.getFileAttributeView(to, BasicFileAttributeView.class)
+                .setTimes(attributes.lastModifiedTime(), attributes.lastAccessTime(), attributes.creationTime());
+        return digest;
+    }
+
+    /**
+     * Copies through a pooled buffer, feeding every chunk to the digest on its way out.
+     */
+    private String copyDigesting(final FileChannel in, final FileChannel out, final long size) throws IOException {
+        final MessageDigest md5 = newDigest();
+        final ByteBuffer buffer = engine.acquireCopyBuffer();
+        try {
+            long copied = 0;
+            while (copied < size) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Copy interrupted");
+                }
+                cancellation.throwIfCancelled();
+                engine.getIoScheduler().yieldToInteractive();
+                buffer.clear();
+                final int read = in.read(buffer);
+                if (read < 0) {
+                    throw new IOException("Source shrank during copy");
+                }
+                buffer.flip();
+                md5.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                copied += read;
+            }
+        } finally {
+            engine.releaseCopyBuffer(buffer);
+        }
+        return HexFormat.of().formatHex(md5.digest());
+    }
+
+    private String digestOf(final Path file) throws IOException {
+        final ByteBuffer buffer = engine.acquireCopyBuffer();
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            return digest(in, buffer);
+        } finally {
+            engine.releaseCopyBuffer(buffer);
+        }
+    }
+
+    private String digest(final FileChannel in, final ByteBuffer buffer) throws IOException {
+        final MessageDigest md5 = newDigest();
+        final long size = in.size();
+        long position = 0;
+        while (position < size) {
+            cancellation.throwIfCancelled();
+            engine.getIoScheduler().yieldToInteractive();
+            buffer.clear();
+            final int read = in.read(buffer);
+            if (read < 0) {
+                break;
+            }
+            buffer.flip();
+            md5.update(buffer);
+            position += read;
+        }
+        return HexFormat.of().formatHex(md5.digest());
+    }
+
+    /**
+     * Copies equal chunks of a large file concurrently, each stripe with its own pair of channels.
+     */
+    private void copyStriped(final Path from, final Path to, final long size) throws IOException {
+        final int stripes = engine.getCopyStripes();
+        final long chunk = (size + stripes - 1) / stripes;
+        final List<CompletableFuture<Void>> copies = new ArrayList<>(stripes);
+        for (long start = 0; start < size; start += chunk) {
+            final long position = start;
+            final long count = Math.min(chunk, size - start);
+            copies.add(CompletableFuture.runAsync(() -> {
+                try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+                     FileChannel out = FileChannel.open(to, StandardOpenOption.WRITE)) {
+                    out.position(position);
+                    transfer(in, out, position, count);
+                } catch (final IOException wrapped) {
+                    throw new UncheckedIOException(wrapped);
+                }
+            }, engine.getStripeExecutor()));
+        }
+        await(CompletableFuture.allOf(copies.toArray(new CompletableFuture[0])));
+    }
+
+    private static <T> T await(final CompletableFuture<T> task) throws IOException {
+        try {
+            return task.join();
+        } catch (final CompletionException unwrapped) {
+            if (unwrapped.getCause() instanceof final UncheckedIOException failure) {
+                throw failure.getCause();
+            }
+            if (unwrapped.getCause() instanceof final OperationCancelledException cancelled) {
+                throw cancelled;
+            }
+            throw unwrapped;
+        }
+    }
+
+    private void transfer(final FileChannel in, final FileChannel out, final long position, final long count)
+            throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Copy interrupted");
+            }
+            cancellation.throwIfCancelled();
+            engine.getIoScheduler().yieldToInteractive();
+            final long written = in.transferTo(position + transferred, Math.min(count - transferred, TRANSFER_CHUNK),
+                                               out);
+            if (written <= 0 && position + transferred >= in.size()) {
+                throw new IOException("Source shrank during copy");
+            }
+            transferred += written;
+        }
+    }
+
+    private synchronized void record(final Path file, final String digest) throws IOException {
+        if (manifest == null) {
+            manifest = Files.newBufferedWriter(destinationRoot.resolve(DIGEST_MANIFEST), StandardCharsets.UTF_8,
+                                               StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        final Path relative = file.startsWith(destinationRoot) ? destinationRoot.relativize(file) : file;
+        manifest.write(digest);
+        manifest.write("  ");
+        manifest.write(relative.toString());
+        manifest.newLine();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException wrapped) {
+            throw new IllegalStateException("MD5 is not available", wrapped);
+        }
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException logged) {
+            log.warn("Could not remove partial copy {}: {}", path, logged.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package ca.joaoborges.filemanager.operations.move;
+
+/**
+ * How a cross-device copy is checked before its source is deleted.
+ * <p>
+ * With any policy other than {@link #NONE} the MD5 digest is computed from the bytes written, as they are copied
+ * through a buffer, and recorded in the destination's {@value MoveSession#DIGEST_MANIFEST}, so the duplicate finder
+ * can reuse it. Such copies are not handed to {@code transferTo} and not striped.
+ */
+public enum VerifyPolicy {
+
+    /**
+     * No digest; files are copied with {@code transferTo}, large ones in parallel stripes.
+     */
+    NONE,
+
+    /**
+     * Digest while copying and force the copy to the device, trusting the device to store what it acknowledged.
+     */
+    SYNC,
+
+    /**
+     * Digest while copying, force the copy, then read the destination once and compare digests.
+     * <p>
+     * The read-back is served from the page cache the copy just filled, so it catches corruption on the way through
+     * the kernel, not on the device; the force before it is what has the device acknowledge the bytes.
+     */
+    READ_BACK
+
+}
@@ -0,0 +1,122 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ca.joaoborges.filemanager.exception.FileManagerException;
+import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import ca.joaoborges.filemanager.operations.common.LaneExecutor;
+import ca.joaoborges.filemanager.operations.common.ResultCollector;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
+import ca.joaoborges.filemanager.operations.move.MoveEngine;
+import ca.joaoborges.filemanager.operations.move.MoveSession;
+import lombok.extern.slf4j.Slf4j;
+
+import static org.apache.commons.io.FilenameUtils.getBaseName;
+import static org.apache.commons.io.FilenameUtils.getExtension;
+
+/**
+ * Moves the files of a directory into the folders chosen by an {@link OrganizeStrategy}.
+ * <p>
+ * Files are handed over while the directory is listed. A first set of workers classifies them (the strategy may
+ * read file metadata), then each destination folder is moved by one lane of a second set of workers, so
+ * independent folders are moved concurrently through a single {@link MoveSession}.
+ */
+@Component
+@Slf4j
+public class BucketMover {
+
+    @Autowired
+    private MoveEngine moveEngine;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Autowired
+    private IoScheduler ioScheduler;
+
+    @Value("${filemanager.move.workers:4}")
+    private int defaultWorkers;
+
+    /**
+     * Organizes the files of the base directory into the destination directory.
+     *
+     * @param recursive         whether the subdirectories of the base directory are organized too
+     * @param renameOnCollision whether a file whose name is taken is moved as "name (n).ext" instead of skipped
+     * @param workers           the number of workers per stage, or null for filemanager.move.workers
+     * @param movedFiles        receives the original and new path of every moved file
+     * @param cancellation      checked before each file is classified or moved
+     */
+    public void organize(final Directory dirBase, final Directory dirDest, final FilenameFilter filter,
+                         final boolean recursive, final OrganizeStrategy strategy, final boolean renameOnCollision,
+                         final Integer workers, final ResultCollector<String, String> movedFiles,
+                         final CancellationToken cancellation) {
+        final Path destRoot = dirDest.getDirectory().toPath().toAbsolutePath();
+        final int lanes = workers != null ? workers : defaultWorkers;
+
+        try (MoveSession moves = moveEngine.open(dirBase.getDirectory().toPath(), destRoot, cancellation)) {
+            // closed in reverse order: classification finishes feeding the movers before they drain
+            try (LaneExecutor movers = workerThreads.lanes("BucketMover-move", lanes);
+                 LaneExecutor classifiers = workerThreads.lanes("BucketMover-classify", lanes)) {
+                final Consumer<File> feed = file -> classifiers.submit(file, () -> {
+                    cancellation.throwIfCancelled();
+                    if (file.isDirectory()) {
+                        return;
+                    }
+                    // classifying may read the file (photo metadata)
+                    ioScheduler.yieldToInteractive();
+                    final Path folder = strategy.folderFor(file, destRoot);
+                    if (folder != null) {
+                        movers.submit(folder, () -> moveFile(moves, file.toPath(), folder, renameOnCollision,
+                                                             movedFiles));
+                    }
+                });
+                if (recursive) {
+                    dirBase.forEachContentRecursively(filter, feed);
+                } else {
+                    dirBase.forEachContent(filter, feed);
+                }
+            }
+        } catch (final IOException wrapped) {
+            throw new FileManagerException(wrapped.getMessage(), wrapped);
+        }
+    }
+
+    private static void moveFile(final MoveSession moves, final Path source, final Path folder,
+                                 final boolean renameOnCollision, final ResultCollector<String, String> movedFiles) {
+        final String name = source.getFileName().toString();
+        try {
+            // create the folder if it does not exist
+            moves.ensureDirectory(folder);
+            Path target = folder.resolve(name);
+            for (int index = 1; ; index++) {
+                try {
+                    moves.move(source, target);
+                    break;
+                } catch (final FileAlreadyExistsException taken) {
+                    if (!renameOnCollision) {
+                        log.warn("Destination file {} already exists", taken.getMessage());
+                        return;
+                    }
+                    target = folder.resolve(String.format("%s (%s).%s", getBaseName(name), index,
+                                                          getExtension(name)));
+                }
+            }
+            log.debug("Moved {} to {}", source, target);
+            movedFiles.put(source.toString(), target.toString());
+        } catch (final IOException wrapped) {
+            throw new FileManagerException(wrapped.getMessage(), wrapped);
+        }
+    }
+
+}
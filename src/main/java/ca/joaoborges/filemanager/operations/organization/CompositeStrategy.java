@@ -0,0 +1,30 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Nests the folders of several strategies, e.g. extension group then first letter.
+ */
+public final class CompositeStrategy implements OrganizeStrategy {
+
+    private final List<OrganizeStrategy> strategies;
+
+    public CompositeStrategy(final List<OrganizeStrategy> strategies) {
+        this.strategies = List.copyOf(strategies);
+    }
+
+    @Override
+    public Path folderFor(final File file, final Path parent) {
+        Path folder = parent;
+        for (final OrganizeStrategy strategy : strategies) {
+            folder = strategy.folderFor(file, folder);
+            if (folder == null) {
+                return null;
+            }
+        }
+        return folder;
+    }
+
+}
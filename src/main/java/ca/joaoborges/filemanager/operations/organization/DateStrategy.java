@@ -0,0 +1,39 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import ca.joaoborges.filemanager.operations.photoOrganization.DateFolderLayout;
+import ca.joaoborges.filemanager.operations.photoOrganization.MediaDate;
+
+/**
+ * Year/month folders from the photo or video metadata, laid out by a {@link DateFolderLayout}; files whose metadata
+ * cannot be read are left in place.
+ */
+public final class DateStrategy implements OrganizeStrategy {
+
+    private final DateFolderLayout layout;
+    private final DateFolderLayout.Folders folders;
+
+    /**
+     * @param layout the folder layout
+     * @param root   the destination directory, whose folders are precomputed
+     */
+    public DateStrategy(final DateFolderLayout layout, final Path root) {
+        this.layout = layout;
+        this.folders = layout.forRoot(root);
+    }
+
+    @Override
+    public Path folderFor(final File file, final Path parent) {
+        final MediaDate date = MediaDate.read(file);
+        if (date == null) {
+            return null;
+        }
+        if (parent.equals(folders.getRoot())) {
+            return folders.get(date.year(), date.month());
+        }
+        return layout.resolve(parent, date.year(), date.month());
+    }
+
+}
@@ -0,0 +1,37 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.io.FilenameUtils;
+
+import ca.joaoborges.filemanager.type.Extension;
+
+/**
+ * One folder per extension group ({@link Extension#getGroup()}), named after the group description; files with an
+ * unsupported extension go to {@value #OTHER_FOLDER}.
+ */
+public final class ExtensionGroupStrategy implements OrganizeStrategy {
+
+    public static final String OTHER_FOLDER = "outros";
+
+    private static final Map<String, String> FOLDERS = new HashMap<>();
+
+    static {
+        for (final Extension extension : Extension.values()) {
+            final String description = extension.getDescription();
+            FOLDERS.put(extension.getExtension(),
+                        description != null ? description : Integer.toString(extension.getGroup()));
+        }
+    }
+
+    @Override
+    public Path folderFor(final File file, final Path parent) {
+        final String extension = FilenameUtils.getExtension(file.getName()).toLowerCase(Locale.ROOT);
+        return parent.resolve(FOLDERS.getOrDefault(extension, OTHER_FOLDER));
+    }
+
+}
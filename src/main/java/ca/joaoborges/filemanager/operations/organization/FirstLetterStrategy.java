@@ -0,0 +1,22 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One folder per first character of the file name, case-insensitively: 'a' and 'A' share the first name seen.
+ */
+public final class FirstLetterStrategy implements OrganizeStrategy {
+
+    private final Map<String, String> letters = new ConcurrentHashMap<>();
+
+    @Override
+    public Path folderFor(final File file, final Path parent) {
+        final String firstChar = file.getName().substring(0, 1);
+        return parent.resolve(letters.computeIfAbsent(firstChar.toLowerCase(Locale.ROOT), key -> firstChar));
+    }
+
+}
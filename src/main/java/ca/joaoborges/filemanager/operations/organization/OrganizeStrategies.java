@@ -0,0 +1,54 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import ca.joaoborges.filemanager.operations.photoOrganization.DateFolderLayout;
+
+/**
+ * Builds organize strategies from their names.
+ * <p>
+ * A specification is one name or a comma separated list of names nested in order, e.g.
+ * {@code extension-group,first-letter}.
+ */
+public final class OrganizeStrategies {
+
+    public static final String FIRST_LETTER = "first-letter";
+    public static final String EXTENSION_GROUP = "extension-group";
+    public static final String SIZE_BAND = "size-band";
+    public static final String DATE = "date";
+
+    private OrganizeStrategies() {
+    }
+
+    /**
+     * Creates the strategy for one operation run.
+     *
+     * @param specification the strategy names; blank means {@value #FIRST_LETTER}
+     * @param dateLayout    the folder layout template used by {@value #DATE}
+     * @param root          the destination directory
+     * @throws IllegalArgumentException when a name is unknown
+     */
+    public static OrganizeStrategy parse(final String specification, final String dateLayout, final Path root) {
+        if (specification == null || specification.isBlank()) {
+            return new FirstLetterStrategy();
+        }
+        final List<OrganizeStrategy> strategies = new ArrayList<>();
+        for (final String name : specification.split(",")) {
+            strategies.add(create(name.trim(), dateLayout, root));
+        }
+        return strategies.size() == 1 ? strategies.get(0) : new CompositeStrategy(strategies);
+    }
+
+    private static OrganizeStrategy create(final String name, final String dateLayout, final Path root) {
+        return switch (name) {
+            case FIRST_LETTER -> new FirstLetterStrategy();
+            case EXTENSION_GROUP -> new ExtensionGroupStrategy();
+            case SIZE_BAND -> new SizeBandStrategy();
+            case DATE -> new DateStrategy(DateFolderLayout.compile(dateLayout), root);
+            default -> throw new IllegalArgumentException("Unknown organize strategy: " + name);
+        };
+    }
+
+}
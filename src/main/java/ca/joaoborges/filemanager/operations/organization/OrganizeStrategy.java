@@ -0,0 +1,20 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * Decides the folder a file is organized into.
+ * <p>
+ * Strategies only classify; listing, directory creation and moving are done by {@link BucketMover}, which calls them
+ * concurrently from its workers. Implementations are created per operation run (see {@link OrganizeStrategies#parse}) and must be
+ * thread-safe.
+ */
+public interface OrganizeStrategy {
+
+    /**
+     * Returns the folder the file belongs in, under the given parent folder, or null to leave the file in place.
+     */
+    Path folderFor(File file, Path parent);
+
+}
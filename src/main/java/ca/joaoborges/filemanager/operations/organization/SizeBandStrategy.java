@@ -0,0 +1,26 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * One folder per order of magnitude of the file size.
+ */
+public final class SizeBandStrategy implements OrganizeStrategy {
+
+    private static final long MB = 1024 * 1024;
+
+    private static final long[] UPPER_BOUNDS = {MB, 10 * MB, 100 * MB, 1024 * MB};
+    private static final String[] BANDS = {"0-1 MB", "1-10 MB", "10-100 MB", "100 MB-1 GB", "1 GB+"};
+
+    @Override
+    public Path folderFor(final File file, final Path parent) {
+        final long size = file.length();
+        int band = 0;
+        while (band < UPPER_BOUNDS.length && size >= UPPER_BOUNDS[band]) {
+            band++;
+        }
+        return parent.resolve(BANDS[band]);
+    }
+
+}
@@ -0,0 +1,271 @@
+package ca.joaoborges.filemanager.operations.photoOrganization;
+
+import java.nio.file.Path;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compiled year/month folder layout used to place organized photos.
+ * <p>
+ * A template such as {@code {year}/{month}-{monthName}} is parsed once into segments; {@link #forRoot(Path)}
+ * then precomputes the year/month folders under a destination directory, so the per-file lookup is an array
+ * access instead of formatting and path building. Instances are immutable and safe to share between threads.
+ * <p>
+ * Supported tokens: {@code {year}} (4 digits), {@code {month}} (2 digits), {@code {monthName}} (full month name).
+ * When a file has no reliable month, the month tokens of a segment, with the text between them, become
+ * {@value #UNDATED_FOLDER} while the rest of the segment is kept: {@code {year}-{month}} renders {@code 2021-outros}.
+ * <p>
+ * A layout is a relative path: empty, {@code .} and {@code ..} segments, and absolute paths, are rejected, so every
+ * folder it renders stays under the destination directory.
+ */
+public final class DateFolderLayout {
+
+    /**
+     * Default layout; matches the tree produced before layouts were configurable.
+     */
+    public static final String DEFAULT_TEMPLATE = "{year}/{month}-{monthName}";
+
+    /**
+     * Folder used in place of the month segments for files without a reliable month.
+     */
+    public static final String UNDATED_FOLDER = "outros";
+
+    // Folder names stay in Portuguese so new runs match the existing organized tree.
+    private static final Locale FOLDER_LOCALE = Locale.of("pt", "BR");
+
+    private static final int FIRST_YEAR = 2000;
+
+    private static final Map<String, DateFolderLayout> COMPILED = new ConcurrentHashMap<>();
+
+    private static final String[] MONTH_NUMBERS = new String[13];
+    private static final String[] MONTH_NAMES = new String[13];
+
+    static {
+        for (final Month month : Month.values()) {
+            final int value = month.getValue();
+            MONTH_NUMBERS[value] = value < 10 ? "0" + value : Integer.toString(value);
+            MONTH_NAMES[value] = month.getDisplayName(TextStyle.FULL, FOLDER_LOCALE);
+        }
+    }
+
+    private final String template;
+    private final List<List<Token>> segments;
+
+    private DateFolderLayout(final String template, final List<List<Token>> segments) {
+        this.template = template;
+        this.segments = segments;
+    }
+
+    /**
+     * Returns the compiled layout for the template, compiling it on first use.
+     *
+     * @param template the layout template; blank means {@link #DEFAULT_TEMPLATE}
+     * @throws IllegalArgumentException when the template is malformed or uses an unknown token
+     */
+    public static DateFolderLayout compile(final String template) {
+        final String effective = template == null || template.isBlank() ? DEFAULT_TEMPLATE : template.trim();
+        return COMPILED.computeIfAbsent(effective, DateFolderLayout::parse);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Builds the folder table for the given destination directory.
+     */
+    public Folders forRoot(final Path root) {
+        return new Folders(root);
+    }
+
+    /**
+     * Renders the relative folder for the given year and month, or for the undated folder when month is 0.
+     */
+    public String render(final int year, final int month) {
+        final StringBuilder folder = new StringBuilder();
+        for (final List<Token> segment : segments) {
+            if (!folder.isEmpty()) {
+                folder.append('/');
+            }
+            if (month == 0) {
+                renderUndated(segment, year, folder);
+                continue;
+            }
+            for (final Token token : segment) {
+                folder.append(token.render(year, month));
+            }
+        }
+        return folder.toString();
+    }
+
+    /**
+     * Resolves the folder for the given year and month under the directory.
+     *
+     * @throws IllegalArgumentException when the folder would not be under the directory
+     */
+    public Path resolve(final Path directory, final int year, final int month) {
+        return resolveUnder(directory, render(year, month));
+    }
+
+    private static Path resolveUnder(final Path directory, final String folder) {
+        final Path base = directory.normalize();
+        final Path resolved = base.resolve(folder).normalize();
+        if (!resolved.startsWith(base) || resolved.equals(base)) {
+            throw new IllegalArgumentException("Folder " + folder + " is not under " + directory);
+        }
+        return resolved;
+    }
+
+    /**
+     * Renders a segment for a file without a reliable month: the span from its first to its last month token
+     * becomes the undated folder name, unless a year token lies inside it; then each month token does.
+     */
+    private static void renderUndated(final List<Token> segment, final int year, final StringBuilder folder) {
+        int first = -1;
+        int last = -1;
+        boolean yearInside = false;
+        for (int i = 0; i < segment.size(); i++) {
+            if (segment.get(i).isMonth()) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+        for (int i = first + 1; i < last; i++) {
+            yearInside |= segment.get(i).kind() == Token.YEAR;
+        }
+        for (int i = 0; i < segment.size(); i++) {
+            final Token token = segment.get(i);
+            if (token.isMonth() && (yearInside || i == first)) {
+                folder.append(UNDATED_FOLDER);
+            } else if (yearInside || i < first || i > last) {
+                folder.append(token.render(year, 0));
+            }
+        }
+    }
+
+    private static DateFolderLayout parse(final String template) {
+        final List<List<Token>> segments = new ArrayList<>();
+        for (final String segment : template.split("[/\\\\]", -1)) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..") || segment.indexOf(':') >= 0) {
+                throw new IllegalArgumentException(
+                        "Folder layout must be a relative path without empty, '.' or '..' segments: " + template);
+            }
+            segments.add(parseSegment(template, segment));
+        }
+        return new DateFolderLayout(template, List.copyOf(segments));
+    }
+
+    private static List<Token> parseSegment(final String template, final String segment) {
+        final List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < segment.length()) {
+            final int open = segment.indexOf('{', i);
+            if (open < 0) {
+                tokens.add(Token.literal(segment.substring(i)));
+                break;
+            }
+            if (open > i) {
+                tokens.add(Token.literal(segment.substring(i, open)));
+            }
+            final int close = segment.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed token in folder layout: " + template);
+            }
+            tokens.add(Token.named(template, segment.substring(open + 1, close)));
+            i = close + 1;
+        }
+        return List.copyOf(tokens);
+    }
+
+    /**
+     * Folders of a layout under one destination directory.
+     * <p>
+     * Names for years from 2000 to next year are rendered up front; each path is resolved the first time it is
+     * requested and reused afterwards, so a folder whose name cannot be represented on the file system only fails
+     * the files that land in it. Years outside that range are rendered on demand.
+     */
+    public final class Folders {
+
+        private final Path root;
+        private final int lastYear;
+        private final String[] names;
+        private final AtomicReferenceArray<Path> paths;
+
+        private Folders(final Path root) {
+            this.root = root;
+            this.lastYear = Year.now().getValue() + 1;
+            this.names = new String[(lastYear - FIRST_YEAR + 1) * 13];
+            this.paths = new AtomicReferenceArray<>(names.length);
+            for (int year = FIRST_YEAR; year <= lastYear; year++) {
+                for (int month = 0; month <= 12; month++) {
+                    names[(year - FIRST_YEAR) * 13 + month] = render(year, month);
+                }
+            }
+        }
+
+        /**
+         * Returns the folder for the year and month (1-12), or the undated folder of the year when month is 0.
+         */
+        public Path get(final int year, final int month) {
+            if (year < FIRST_YEAR || year > lastYear) {
+                return resolve(root, year, month);
+            }
+            final int index = (year - FIRST_YEAR) * 13 + month;
+            final Path cached = paths.get(index);
+            if (cached != null) {
+                return cached;
+            }
+            final Path resolved = resolveUnder(root, names[index]);
+            return paths.compareAndSet(index, null, resolved) ? resolved : paths.get(index);
+        }
+
+        public Path getRoot() {
+            return root;
+        }
+    }
+
+    private record Token(String literal, char kind) {
+
+        private static final char LITERAL = 'L';
+        private static final char YEAR = 'Y';
+        private static final char MONTH = 'M';
+        private static final char MONTH_NAME = 'N';
+
+        static Token literal(final String text) {
+            return new Token(text, LITERAL);
+        }
+
+        static Token named(final String template, final String name) {
+            return switch (name) {
+                case "year" -> new Token(null, YEAR);
+                case "month" -> new Token(null, MONTH);
+                case "monthName" -> new Token(null, MONTH_NAME);
+                default -> throw new IllegalArgumentException(
+                        "Unknown token {" + name + "} in folder layout: " + template);
+            };
+        }
+
+        boolean isMonth() {
+            return kind == MONTH || kind == MONTH_NAME;
+        }
+
+        String render(final int year, final int month) {
+            return switch (kind) {
+                case YEAR -> Integer.toString(year);
+                case MONTH -> MONTH_NUMBERS[month];
+                case MONTH_NAME -> MONTH_NAMES[month];
+                default -> literal;
+            };
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package ca.joaoborges.filemanager.operations.photoOrganization;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.TimeZone;
+
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.imaging.ImageProcessingException;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifDirectoryBase;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.exif.ExifSubIFDDirectory;
+import com.drew.metadata.mov.QuickTimeDirectory;
+import com.drew.metadata.mp4.Mp4Directory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Year and month a photo or video was taken.
+ * <p>
+ * Read from the EXIF original/IFD0 dates, then the MP4/QuickTime creation time. When none of them is usable the
+ * file system creation time, and finally the last modified time, give the year only: the month is then 0, which
+ * {@link DateFolderLayout} places in its undated folder.
+ *
+ * @param year  the year, 2000 or later unless only the last modified time was available
+ * @param month the month (1-12), or 0 when unreliable
+ */
+@Slf4j
+public record MediaDate(int year, int month) {
+
+    private static final int FIRST_RELIABLE_YEAR = 2000;
+
+    /**
+     * Reads the date of the file, or returns null when its metadata cannot be read at all.
+     */
+    public static MediaDate read(final File file) {
+        final Metadata metadata;
+        try {
+            metadata = ImageMetadataReader.readMetadata(file);
+        } catch (final ImageProcessingException | IOException logged) {
+            log.error("Error reading metadata for file {}", file, logged);
+            return null;
+        }
+
+        ZonedDateTime dateTaken = null;
+
+        final ExifSubIFDDirectory subDirectory = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        if (subDirectory != null) {
+            dateTaken = readDateTag(subDirectory, ExifDirectoryBase.TAG_DATETIME_ORIGINAL);
+        }
+
+        if (dateTaken == null) {
+            final ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+            if (directory != null) {
+                dateTaken = readDateTag(directory, ExifDirectoryBase.TAG_DATETIME);
+            }
+        }
+
+        if (dateTaken == null) {
+            final Mp4Directory mp4Directory = metadata.getFirstDirectoryOfType(Mp4Directory.class);
+            dateTaken = readDateTag(mp4Directory, Mp4Directory.TAG_CREATION_TIME);
+        }
+
+        if (dateTaken == null) {
+            final QuickTimeDirectory quickTimeDirectory = metadata.getFirstDirectoryOfType(QuickTimeDirectory.class);
+            dateTaken = readDateTag(quickTimeDirectory, QuickTimeDirectory.TAG_CREATION_TIME);
+        }
+
+        if (dateTaken != null) {
+            return new MediaDate(dateTaken.getYear(), dateTaken.getMonthValue());
+        }
+
+        try {
+            final FileTime creationTime = (FileTime) Files.getAttribute(file.toPath(), "creationTime");
+            dateTaken = creationTime != null ? creationTime.toInstant().atZone(ZoneOffset.UTC) : null;
+            if (dateTaken != null && dateTaken.getYear() >= FIRST_RELIABLE_YEAR) {
+                return new MediaDate(dateTaken.getYear(), 0);
+            }
+        } catch (final IOException logged) {
+            log.warn("Cannot read creationTime for {}: {}", file, logged.getMessage());
+        }
+
+        log.warn("Using last modified date for {}", file);
+        dateTaken = ZonedDateTime.ofInstant(Instant.ofEpochMilli(file.lastModified()), ZoneOffset.UTC);
+        return new MediaDate(dateTaken.getYear(), 0);
+    }
+
+    private static ZonedDateTime readDateTag(final com.drew.metadata.Directory directory, final int tag) {
+        if (directory == null) {
+            return null;
+        }
+        final Date date = directory.getDate(tag, TimeZone.getDefault());
+        if (date == null) {
+            return null;
+        }
+        final ZonedDateTime dateTaken = Instant.ofEpochMilli(date.getTime()).atZone(ZoneOffset.UTC);
+        if (dateTaken.getYear() < FIRST_RELIABLE_YEAR) {
+            return null;
+        }
+        return dateTaken;
+    }
+
+}
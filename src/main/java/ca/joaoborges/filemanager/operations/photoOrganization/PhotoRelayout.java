@@ -0,0 +1,302 @@
+package ca.joaoborges.filemanager.operations.photoOrganization;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Year;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import ca.joaoborges.filemanager.exception.FileManagerException;
+import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.operations.interfaces.FileOperation;
+import ca.joaoborges.filemanager.operations.move.MoveEngine;
+import ca.joaoborges.filemanager.operations.move.MoveSession;
+import lombok.extern.slf4j.Slf4j;
+
+import static ca.joaoborges.filemanager.operations.common.OperationConstants.PHOTO_RELAYOUT_OPERATION;
+
+/**
+ * Changes the folder layout of a tree already organized by {@link PhotoOrganizer}.
+ * <p>
+ * Every year/month folder of the old layout that exists is renamed to its folder in the new layout, so the cost
+ * is one rename per folder instead of one move per photo. A folder whose new location already exists is merged
+ * into it entry by entry; subfolders are still renamed whole. Folders left empty by the moves are removed.
+ * <p>
+ * When a new folder lies inside an old one, the old folders are first staged under {@value #STAGING_FOLDER}, each
+ * at the relative path of its new folder, after the list of those paths was written to {@value #PLAN_FILE}. A run
+ * cut short between the two phases is finished by the next run on the same directory.
+ */
+@Service(value = PHOTO_RELAYOUT_OPERATION)
+@Slf4j
+public class PhotoRelayout implements FileOperation<PhotoRelayoutResult> {
+
+    /**
+     * Layout the tree is currently organized with; defaults to the configured photo organization layout.
+     */
+    public static final String FROM_LAYOUT = "FROM_LAYOUT";
+
+    /**
+     * Layout to move the tree to; required.
+     */
+    public static final String TO_LAYOUT = "TO_LAYOUT";
+
+    /**
+     * When true, only the plan is computed.
+     */
+    public static final String DRY_RUN = "DRY_RUN";
+
+    // covers every year MediaDate can produce, down to epoch last-modified fallbacks
+    private static final int FIRST_YEAR = 1970;
+
+    private static final String STAGING_FOLDER = ".relayout";
+
+    private static final String PLAN_FILE = "plan.txt";
+
+    @Value("${filemanager.photo-organization.folder-layout:}")
+    private String defaultFolderLayout;
+
+    @Autowired
+    private MoveEngine moveEngine;
+
+    @Override
+    public PhotoRelayoutResult execute(final Map<String, Object> params) throws FileManagerException {
+        final Directory directory = (Directory) params.get(Directory.class.getName());
+        final DateFolderLayout from = DateFolderLayout.compile(
+                (String) params.getOrDefault(FROM_LAYOUT, defaultFolderLayout));
+        final String toTemplate = (String) params.get(TO_LAYOUT);
+        if (toTemplate == null || toTemplate.isBlank()) {
+            throw new IllegalArgumentException("The new folder layout is required");
+        }
+        final DateFolderLayout to = DateFolderLayout.compile(toTemplate);
+        final boolean dryRun = Boolean.TRUE.equals(params.get(DRY_RUN));
+        final Path root = directory.getDirectory().toPath().toAbsolutePath().normalize();
+
+        final PhotoRelayoutResult result = new PhotoRelayoutResult(directory, dryRun);
+        // planned before an interrupted run is finished: folders it puts in place are already in the new layout
+        final Map<Path, Path> plan = plan(root, from, to);
+        log.info("Re-layout of {} from {} to {}: {} folders", root, from.getTemplate(), to.getTemplate(), plan.size());
+        if (dryRun) {
+            plan.forEach((oldFolder, newFolder) -> result.getMovedDirectories()
+                    .put(oldFolder.toString(), newFolder.toString()));
+            return result;
+        }
+
+        try (MoveSession moves = moveEngine.open(root, root)) {
+            resume(root, moves, result);
+            apply(root, plan, moves, result);
+        } catch (final IOException wrapped) {
+            throw new FileManagerException(wrapped.getMessage(), wrapped);
+        }
+        return result;
+    }
+
+    /**
+     * Maps every existing folder of the old layout to its folder in the new layout.
+     *
+     * @throws IllegalArgumentException when an old folder would have to be split, i.e. the new layout needs
+     *                                  information the old folders do not carry, or when two old folders would
+     *                                  end up in the same new folder
+     */
+    private static Map<Path, Path> plan(final Path root, final DateFolderLayout from, final DateFolderLayout to) {
+        final Map<Path, Path> plan = new LinkedHashMap<>();
+        final int lastYear = Year.now().getValue() + 1;
+        for (int year = FIRST_YEAR; year <= lastYear; year++) {
+            for (int month = 0; month <= 12; month++) {
+                final Path oldFolder;
+                try {
+                    oldFolder = from.resolve(root, year, month);
+                } catch (final InvalidPathException unrepresentable) {
+                    // a name the file system cannot hold cannot exist on it either
+                    continue;
+                }
+                if (!Files.isDirectory(oldFolder)) {
+                    continue;
+                }
+                final Path newFolder = to.resolve(root, year, month);
+                final Path planned = plan.putIfAbsent(oldFolder, newFolder);
+                if (planned != null && !planned.equals(newFolder)) {
+                    throw new IllegalArgumentException("Folder " + oldFolder + " would have to be split between "
+                            + planned + " and " + newFolder + "; organize its photos again instead");
+                }
+            }
+        }
+        final Map<Path, Path> sources = new HashMap<>();
+        plan.forEach((oldFolder, newFolder) -> {
+            final Path other = sources.putIfAbsent(newFolder, oldFolder);
+            if (other != null) {
+                throw new IllegalArgumentException("Folders " + other + " and " + oldFolder + " would both move to "
+                        + newFolder + "; organize their photos again instead");
+            }
+        });
+        plan.entrySet().removeIf(move -> move.getKey().equals(move.getValue()));
+        return plan;
+    }
+
+    private static void apply(final Path root, final Map<Path, Path> plan, final MoveSession moves,
+                              final PhotoRelayoutResult result) throws IOException {
+        // a new folder inside (or equal to) an old one would be moved into itself or mixed with photos still to
+        // be moved: take the old folders out of the way first
+        final boolean staged = plan.values().stream()
+                .anyMatch(newFolder -> plan.keySet().stream().anyMatch(newFolder::startsWith));
+        final Path staging = root.resolve(STAGING_FOLDER);
+        if (staged) {
+            moves.ensureDirectory(staging);
+            // the plan is on disk before the first folder leaves its place, so that a crash can be recovered
+            final List<String> targets = plan.values().stream()
+                    .map(newFolder -> root.relativize(newFolder).toString())
+                    .toList();
+            Files.write(staging.resolve(PLAN_FILE), targets, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            for (final Map.Entry<Path, Path> step : plan.entrySet()) {
+                final Path stagedFolder = staging.resolve(root.relativize(step.getValue()));
+                moves.ensureDirectory(stagedFolder.getParent());
+                Files.move(step.getKey(), stagedFolder);
+                removeEmptyParents(step.getKey(), root);
+            }
+        }
+
+        for (final Map.Entry<Path, Path> step : plan.entrySet()) {
+            final Path oldFolder = step.getKey();
+            final Path newFolder = step.getValue();
+            final Path current = staged ? staging.resolve(root.relativize(newFolder)) : oldFolder;
+            place(current, oldFolder, newFolder, moves, result);
+            removeEmptyParents(current, root);
+        }
+        if (staged) {
+            finishStaging(staging);
+        }
+    }
+
+    /**
+     * Finishes a staged run cut short: every folder still staged is moved to the new folder named by its path.
+     */
+    private static void resume(final Path root, final MoveSession moves, final PhotoRelayoutResult result)
+            throws IOException {
+        final Path staging = root.resolve(STAGING_FOLDER);
+        final Path planFile = staging.resolve(PLAN_FILE);
+        if (!Files.exists(planFile)) {
+            return;
+        }
+        log.warn("Finishing the interrupted re-layout of {}", root);
+        for (final String target : Files.readAllLines(planFile)) {
+            final Path stagedFolder = staging.resolve(target).normalize();
+            final Path newFolder = root.resolve(target).normalize();
+            if (!stagedFolder.startsWith(staging) || !newFolder.startsWith(root)) {
+                throw new FileManagerException("Invalid folder in " + planFile + ": " + target);
+            }
+            if (Files.isDirectory(stagedFolder)) {
+                place(stagedFolder, stagedFolder, newFolder, moves, result);
+                removeEmptyParents(stagedFolder, root);
+            }
+        }
+        finishStaging(staging);
+    }
+
+    private static void place(final Path current, final Path oldFolder, final Path newFolder,
+                              final MoveSession moves, final PhotoRelayoutResult result) throws IOException {
+        if (!Files.exists(newFolder) && rename(current, newFolder, moves)) {
+            result.getMovedDirectories().put(oldFolder.toString(), newFolder.toString());
+        } else {
+            merge(current, newFolder, moves, result);
+            result.getMergedDirectories().put(oldFolder.toString(), newFolder.toString());
+        }
+    }
+
+    /**
+     * Removes the plan and the staging folders, all of them empty by now.
+     */
+    private static void finishStaging(final Path staging) throws IOException {
+        Files.deleteIfExists(staging.resolve(PLAN_FILE));
+        final List<Path> folders;
+        try (Stream<Path> tree = Files.walk(staging)) {
+            folders = tree.sorted(Comparator.reverseOrder()).toList();
+        }
+        for (final Path folder : folders) {
+            if (Files.isDirectory(folder)) {
+                deleteIfEmpty(folder);
+            }
+        }
+    }
+
+    /**
+     * Renames the folder whole; returns false when it has to be merged instead (e.g. across file stores).
+     */
+    private static boolean rename(final Path folder, final Path target, final MoveSession moves) throws IOException {
+        moves.ensureDirectory(target.getParent());
+        try {
+            Files.move(folder, target);
+            log.debug("Moved folder {} to {}", folder, target);
+            return true;
+        } catch (final FileAlreadyExistsException | DirectoryNotEmptyException merge) {
+            return false;
+        }
+    }
+
+    private static void merge(final Path folder, final Path target, final MoveSession moves,
+                              final PhotoRelayoutResult result) throws IOException {
+        moves.ensureDirectory(target);
+        final List<Path> entries;
+        try (Stream<Path> listing = Files.list(folder)) {
+            entries = listing.toList();
+        }
+        for (final Path entry : entries) {
+            final Path entryTarget = target.resolve(entry.getFileName());
+            if (Files.isDirectory(entry)) {
+                if (Files.exists(entryTarget) || !rename(entry, entryTarget, moves)) {
+                    merge(entry, entryTarget, moves, result);
+                }
+                continue;
+            }
+            try {
+                moves.move(entry, entryTarget);
+            } catch (final FileAlreadyExistsException logged) {
+                log.warn("Destination file {} already exists, keeping {}", logged.getMessage(), entry);
+                result.setSkippedFiles(result.getSkippedFiles() + 1);
+            }
+        }
+        deleteIfEmpty(folder);
+    }
+
+    private static void removeEmptyParents(final Path folder, final Path root) throws IOException {
+        for (Path parent = folder; parent != null && !parent.equals(root) && parent.startsWith(root);
+             parent = parent.getParent()) {
+            if (Files.exists(parent) && !deleteIfEmpty(parent)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean deleteIfEmpty(final Path folder) throws IOException {
+        try (Stream<Path> listing = Files.list(folder)) {
+            if (listing.findAny().isPresent()) {
+                return false;
+            }
+        }
+        Files.delete(folder);
+        return true;
+    }
+
+    @Override
+    public String getOperationName() {
+        return "Change the Folder Layout of Organized Photos";
+    }
+
+    @Override
+    public String getOperationID() {
+        return PHOTO_RELAYOUT_OPERATION;
+    }
+
+}
@@ -0,0 +1,40 @@
+package ca.joaoborges.filemanager.operations.photoOrganization;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.operations.interfaces.OperationResult;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of the photo re-layout operation: the directory moves planned (and applied, unless a dry run).
+ */
+@RequiredArgsConstructor
+@Getter
+public class PhotoRelayoutResult implements OperationResult {
+
+    private static final long serialVersionUID = 4117029188311290351L;
+
+    /**
+     * Old folder to new folder, for folders renamed as a whole.
+     */
+    private final Map<String, String> movedDirectories = new LinkedHashMap<>();
+
+    /**
+     * Old folder to new folder, for folders merged into an existing one entry by entry.
+     */
+    private final Map<String, String> mergedDirectories = new LinkedHashMap<>();
+
+    private final Directory directory;
+    private final boolean dryRun;
+
+    /**
+     * Files left in their old folder because the new folder already had a file with the same name.
+     */
+    @Setter
+    private int skippedFiles;
+
+}
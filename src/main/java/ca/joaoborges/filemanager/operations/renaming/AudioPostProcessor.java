@@ -1,7 +1,10 @@
 package ca.joaoborges.filemanager.operations.renaming;
 
 import java.io.File;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.text.WordUtils;
 import org.jaudiotagger.audio.AudioFile;
@@ -40,6 +43,9 @@ public class AudioPostProcessor implements PostProcessor {
     @Autowired
     private ExclusionManagerService exclusions;
 
+    @Autowired
+    private AudioTagWriter tagWriter;
+
     public String processFileName(String fileName) {
         log.debug("Custom name operations for " + fileName);
         final String[] name = this.splitName(fileName);
@@ -91,7 +97,68 @@ public class AudioPostProcessor implements PostProcessor {
 
     @Override
     public void processFile(final FileDTO fileToRename, final RenamingResult result,
-            final Collection<String> originalFileList) throws FileManagerException {
+            final DirectorySnapshot snapshot) throws FileManagerException {
+        processFiles(List.of(fileToRename), result, snapshot);
+    }
+
+    /**
+     * Reads the tags of each file, then journals the renames they call for as one batch, so the directory costs a
+     * single journal sync however many of its files are renamed from their tags.
+     */
+    @Override
+    public void processFiles(final List<FileDTO> files, final RenamingResult result,
+            final DirectorySnapshot snapshot) throws FileManagerException {
+        final List<RenameJournal.Move> moves = new ArrayList<>();
+        FileManagerException failure = null;
+        for (final FileDTO file : files) {
+            try {
+                final RenameJournal.Move move = processTags(file, result, snapshot);
+                if (move != null) {
+                    moves.add(move);
+                }
+            } catch (final FileManagerException collected) {
+                if (failure == null) {
+                    failure = collected;
+                } else {
+                    failure.addSuppressed(collected);
+                }
+            }
+        }
+
+        boolean[] applied = new boolean[moves.size()];
+        try {
+            applied = result.getJournal().apply(moves);
+        } catch (final FileManagerException notJournaled) {
+            // nothing was renamed; the claimed names are given back below
+            if (failure == null) {
+                failure = notJournaled;
+            } else {
+                failure.addSuppressed(notJournaled);
+            }
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            final RenameJournal.Move move = moves.get(i);
+            if (applied[i]) {
+                // keep the original path of the first rename
+                final String originalPath = result.getRenamedFiles().remove(move.from().toString());
+                result.getRenamedFiles().put(move.to().toString(),
+                                             originalPath != null ? originalPath : move.from().toString());
+                log.debug("Final name: " + move.to().getFileName());
+            } else {
+                snapshot.release(move.from().getFileName().toString(), move.to().getFileName().toString());
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns the rename called for by the artist and title tags of the file, or null when the file keeps its name;
+     * a file without them is tagged from its name instead, in the background.
+     */
+    private RenameJournal.Move processTags(final FileDTO fileToRename, final RenamingResult result,
+            final DirectorySnapshot snapshot) throws FileManagerException {
         log.debug("Custom file operations for " + fileToRename.getFile().getAbsolutePath());
 
         try {
@@ -116,31 +183,28 @@ public class AudioPostProcessor implements PostProcessor {
                 // title case for a nicer-looking name
                 newName = WordUtils.capitalizeFully(newName);
 
-                File newFile = new File(fileToRename.getFile().getPath() + File.separator + newName);
-                if (originalFileList.contains(newName)) {
-                    newName = "(" + System.currentTimeMillis() + ") " + newName;
-                    newFile = new File(fileToRename.getFile().getPath() + File.separator + newName);
+                final String currentName = fileToRename.getFile().getName();
+                if (!currentName.equals(newName)) {
+                    newName = snapshot.claim(currentName, newName);
+                    final File newFile = new File(fileToRename.getContentDirectory().getPath(), newName);
+                    return new RenameJournal.Move(fileToRename.getFile().toPath(), newFile.toPath());
                 }
-                fileToRename.getFile().renameTo(newFile);
-
-                result.getRenamedFiles().remove(fileToRename.getFile().getPath());
-                result.getRenamedFiles().put(newFile.getPath(), fileToRename.getFile().getPath());
-
-                log.debug("Final name: " + newName);
             } else {
+                // otherwise tag the file from its name; the write happens in the background, if anything changed
                 final String[] fileInfo = this.splitName(NameUtils.splitExtension(fileToRename.getFile().getName())[0]);
-                tag.setField(FieldKey.ARTIST, fileInfo[0].trim());
-                tag.setField(FieldKey.ALBUM_ARTIST, fileInfo[0].trim());
+                final Map<FieldKey, String> fields = new EnumMap<>(FieldKey.class);
+                fields.put(FieldKey.ARTIST, fileInfo[0].trim());
+                fields.put(FieldKey.ALBUM_ARTIST, fileInfo[0].trim());
                 if (fileInfo.length > 1) {
-                    tag.setField(FieldKey.TITLE, fileInfo[1].trim());
+                    fields.put(FieldKey.TITLE, fileInfo[1].trim());
                 }
-                tag.setField(FieldKey.ALBUM, "");
-                tag.setField(FieldKey.GENRE, "");
-                tag.setField(FieldKey.YEAR, "");
-                tag.setField(FieldKey.TRACK, "0");
+                fields.put(FieldKey.ALBUM, "");
+                fields.put(FieldKey.GENRE, "");
+                fields.put(FieldKey.YEAR, "");
+                fields.put(FieldKey.TRACK, "0");
+                result.defer(tagWriter.write(audioFile, tag, fields));
             }
-            audioFile.setTag(tag);
-            audioFile.commit();
+            return null;
 
         } catch (final Exception rethrown) {
             log.error("Error in the custom audio file operations.", rethrown);
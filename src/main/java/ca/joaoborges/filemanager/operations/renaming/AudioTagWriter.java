@@ -0,0 +1,96 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Strings;
+
+import ca.joaoborges.filemanager.exception.FileManagerException;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes audio tags off the rename loop, and only when they change.
+ * <p>
+ * {@link #write(AudioFile, Tag, Map)} compares the wanted values with the stored ones; a file whose tags already
+ * match is not written at all, so re-running over a tagged library costs only the tag reads. Real writes are
+ * committed by a bounded pool ({@code filemanager.rename.tag-writers}); when its queue is full the caller commits
+ * the file itself, which keeps a fast rename pass from piling up tag writes in memory.
+ */
+@Component
+@Slf4j
+public class AudioTagWriter {
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final ThreadPoolExecutor writers;
+
+    public AudioTagWriter(@Value("${filemanager.rename.tag-writers:2}") final int tagWriters,
+                          final WorkerThreads workerThreads) {
+        final int threads = Math.max(1, tagWriters);
+        this.writers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                workerThreads.factory("AudioTagWriter"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Sets the given fields on the tag and commits the file, unless every field already holds its value.
+     *
+     * @param tag the tag of the file, possibly a new one not yet attached to it
+     * @return completes with whether the file was written, or exceptionally when the write failed
+     */
+    public CompletableFuture<Boolean> write(final AudioFile audioFile, final Tag tag,
+            final Map<FieldKey, String> fields) {
+        final Map<FieldKey, String> changed = changedFields(tag, fields);
+        if (changed.isEmpty()) {
+            log.debug("Tags of {} are up to date", audioFile.getFile());
+            return CompletableFuture.completedFuture(false);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                for (final Map.Entry<FieldKey, String> field : changed.entrySet()) {
+                    tag.setField(field.getKey(), field.getValue());
+                }
+                audioFile.setTag(tag);
+                audioFile.commit();
+                return true;
+            } catch (final Exception wrapped) {
+                log.error("Could not write the tags of " + audioFile.getFile(), wrapped);
+                throw new FileManagerException("Could not update the audio file properties.", wrapped);
+            }
+        }, writers);
+    }
+
+    /**
+     * Returns the fields whose stored value differs from the wanted one; a missing value counts as empty.
+     */
+    static Map<FieldKey, String> changedFields(final Tag tag, final Map<FieldKey, String> fields) {
+        final Map<FieldKey, String> changed = new EnumMap<>(FieldKey.class);
+        for (final Map.Entry<FieldKey, String> field : fields.entrySet()) {
+            final String stored = Strings.nullToEmpty(tag.getFirst(field.getKey()));
+            if (!Objects.equals(stored, Strings.nullToEmpty(field.getValue()))) {
+                changed.put(field.getKey(), field.getValue());
+            }
+        }
+        return changed;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdown();
+    }
+
+}
@@ -0,0 +1,168 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import ca.joaoborges.filemanager.model.Directory;
+import lombok.extern.slf4j.Slf4j;
+
+import static ca.joaoborges.filemanager.model.FilenameComparator.NAME_ORDER;
+
+/**
+ * The contents of a directory being renamed, read with a single listing.
+ * <p>
+ * Every name in the directory is indexed, whether it matches the filter or not, so collision checks are constant
+ * time. Whether an entry is a directory or hidden is read with the listing too: from the attributes the listing
+ * returns on Windows, and from a single stat per entry and the name elsewhere. Names given out by {@link #claim(String, String)} are indexed as well, which keeps two files from being
+ * renamed to the same name during a run. A snapshot belongs to the worker renaming its directory and is not
+ * thread-safe.
+ */
+@Slf4j
+public final class DirectorySnapshot {
+
+    private final Directory directory;
+    private final List<File> contents;
+    private final Set<String> names;
+    private final Set<String> directories;
+    private final Set<String> hidden;
+
+    private DirectorySnapshot(final Directory directory, final List<File> contents, final Set<String> names,
+                              final Set<String> directories, final Set<String> hidden) {
+        this.directory = directory;
+        this.contents = contents;
+        this.names = names;
+        this.directories = directories;
+        this.hidden = hidden;
+    }
+
+    /**
+     * Lists the directory once; the contents matching the filter are sorted by name. A directory that cannot be
+     * listed has no contents.
+     */
+    public static DirectorySnapshot of(final Directory directory, final FilenameFilter filter) {
+        final File dir = directory.getDirectory();
+        final List<File> contents = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+        final Set<String> directories = new HashSet<>();
+        final Set<String> hidden = new HashSet<>();
+        final boolean dosAttributes = !dir.toPath().getFileSystem().supportedFileAttributeViews().contains("posix");
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir.toPath())) {
+            for (final Path entry : entries) {
+                final String name = entry.getFileName().toString();
+                names.add(name);
+                if (filter != null && !filter.accept(dir, name)) {
+                    continue;
+                }
+                contents.add(entry.toFile());
+                if (dosAttributes) {
+                    final DosFileAttributes attributes = readAttributes(entry, DosFileAttributes.class);
+                    if (attributes != null && attributes.isDirectory()) {
+                        directories.add(name);
+                    }
+                    if (attributes != null && attributes.isHidden()) {
+                        hidden.add(name);
+                    }
+                } else {
+                    final BasicFileAttributes attributes = readAttributes(entry, BasicFileAttributes.class);
+                    if (attributes != null && attributes.isDirectory()) {
+                        directories.add(name);
+                    }
+                    if (name.startsWith(".")) {
+                        hidden.add(name);
+                    }
+                }
+            }
+        } catch (final IOException | DirectoryIteratorException unreadable) {
+            log.debug("Cannot list {}: {}", dir, unreadable.toString());
+            return new DirectorySnapshot(directory, Collections.emptyList(), names, directories, hidden);
+        }
+        contents.sort(NAME_ORDER);
+        return new DirectorySnapshot(directory, contents, names, directories, hidden);
+    }
+
+    /**
+     * Reads the attributes of an entry, following links as {@link File#isDirectory()} does, or returns null when
+     * it vanished or cannot be read.
+     */
+    private static <A extends BasicFileAttributes> A readAttributes(final Path entry, final Class<A> type) {
+        try {
+            return Files.readAttributes(entry, type);
+        } catch (final IOException unreadable) {
+            return null;
+        }
+    }
+
+    public Directory getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the contents matching the filter, in name order, as they were when the snapshot was taken.
+     */
+    public List<File> getContents() {
+        return contents;
+    }
+
+    /**
+     * Returns whether an entry of the contents is a directory, as listed.
+     */
+    public boolean isDirectory(final File file) {
+        return directories.contains(file.getName());
+    }
+
+    /**
+     * Returns whether an entry of the contents is hidden, as listed.
+     */
+    public boolean isHidden(final File file) {
+        return hidden.contains(file.getName());
+    }
+
+    /**
+     * Returns whether the name is taken, either by an original entry or by a name claimed since.
+     */
+    public boolean contains(final String name) {
+        return names.contains(name);
+    }
+
+    /**
+     * Reserves a name for a file about to be renamed. A taken name is prefixed with the current time, as in
+     * "(1700000000000) name", and the prefix is counted up until it is free.
+     *
+     * @param from the current name of the file, released
+     * @param to   the wanted name
+     * @return the name to rename the file to
+     */
+    public String claim(final String from, final String to) {
+        String name = to;
+        for (long stamp = System.currentTimeMillis(); names.contains(name); stamp++) {
+            name = "(" + stamp + ") " + to;
+        }
+        names.remove(from);
+        names.add(name);
+        return name;
+    }
+
+    /**
+     * Gives back a name claimed for a rename that did not happen: the file keeps its current name.
+     *
+     * @param from    the current name of the file, taken again
+     * @param claimed the name returned by {@link #claim(String, String)}, freed
+     */
+    public void release(final String from, final String claimed) {
+        names.remove(claimed);
+        names.add(from);
+    }
+
+}
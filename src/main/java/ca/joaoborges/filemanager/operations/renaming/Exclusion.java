@@ -3,6 +3,7 @@ package ca.joaoborges.filemanager.operations.renaming;
 import java.io.Serializable;
 
 import com.thoughtworks.xstream.annotations.XStreamAlias;
+import com.thoughtworks.xstream.annotations.XStreamAsAttribute;
 
 /**
  * A single name fragment that must be excluded from the renaming operation.
@@ -12,6 +13,7 @@ public class Exclusion implements Serializable {
 
     private static final long serialVersionUID = 4670548162086147533L;
 
+    @XStreamAsAttribute
     private String value;
 
     public String getValue() {
@@ -0,0 +1,60 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import ca.joaoborges.filemanager.operations.common.AhoCorasick;
+
+/**
+ * Lowercase-normalized lookup structure over the configured exclusions.
+ * <p>
+ * Exact lookups use a hash set; prefix and substring lookups walk one {@link AhoCorasick} trie, so each query is
+ * linear in the length of the queried name and independent of the number of exclusions. Immutable.
+ */
+public final class ExclusionIndex {
+
+    private final List<String> values;
+    private final Set<String> exact;
+    private final AhoCorasick fragments;
+
+    public ExclusionIndex(final Collection<String> exclusions) {
+        this.values = List.copyOf(exclusions);
+        this.exact = new HashSet<>();
+        for (final String exclusion : exclusions) {
+            exact.add(exclusion.toLowerCase(Locale.ROOT));
+        }
+        this.fragments = new AhoCorasick(exact);
+    }
+
+    /**
+     * Returns whether the text is an exclusion, ignoring case.
+     */
+    public boolean isExclusion(final String text) {
+        return exact.contains(text.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns whether the text starts with an exclusion.
+     */
+    public boolean startsWithExclusion(final CharSequence text) {
+        return fragments.matchesPrefixOf(text);
+    }
+
+    /**
+     * Returns whether the text contains an exclusion.
+     */
+    public boolean containsExclusion(final CharSequence text) {
+        return fragments.containsAny(text);
+    }
+
+    /**
+     * Returns the exclusions as configured.
+     */
+    public List<String> getValues() {
+        return values;
+    }
+
+}
@@ -1,78 +1,133 @@
 package ca.joaoborges.filemanager.operations.renaming;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-import java.net.URL;
-import java.util.ArrayList;
-import java.util.Enumeration;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.List;
 
-import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import com.thoughtworks.xstream.XStream;
-import com.thoughtworks.xstream.security.AnyTypePermission;
+import com.google.common.base.Strings;
 
 import lombok.extern.slf4j.Slf4j;
 
-import static com.thoughtworks.xstream.XStream.NO_REFERENCES;
-
 /**
- * Manages loading of the name fragments that must be excluded from the renaming operation.
+ * Manages loading of the renaming rules: the name fragments that must be excluded from the renaming operation and
+ * the name filters.
+ * <p>
+ * The rules are compiled into a {@link RuleSet} at startup. When {@code filemanager.rename.rules-dir} is set, the
+ * rule files found there replace the bundled ones, and the directory is watched: a change recompiles the rules off
+ * the rename path and swaps them in at once. A rule file that fails to load leaves the previous rules in force.
  */
 @Component
 @Slf4j
-public class ExclusionManagerService implements InitializingBean {
+public class ExclusionManagerService implements InitializingBean, DisposableBean {
+
+    // let a burst of writes from an editor settle before recompiling
+    private static final long RELOAD_DELAY_MS = 200;
 
-    private XStream xStream;
-    private List<String> exclusions;
+    @Value("${filemanager.rename.rules-dir:}")
+    private String rulesDir;
+
+    private WatchService watcher;
 
     public void afterPropertiesSet() throws Exception {
-        try {
-            this.xStream = new XStream();
-            xStream.addPermission(AnyTypePermission.ANY);
-            xStream.ignoreUnknownElements();
-            xStream.setMode(NO_REFERENCES);
-            xStream.autodetectAnnotations(true);
-            this.xStream.processAnnotations(ExclusionsBean.class);
-        } catch (final Exception rethrown) {
-            log.error(rethrown.getMessage(), rethrown);
-            throw new RuntimeException("Could not initialize XStream.", rethrown);
+        final Path directory = rulesDirectory();
+        RuleSet.install(RuleLoader.load(directory));
+        if (directory != null) {
+            watch(directory);
         }
+    }
 
-        this.exclusions = new ArrayList<>();
-        final Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources("exclusions.xml");
-        while (resources.hasMoreElements()) {
-            final URL exclusionFile = resources.nextElement();
-            log.debug("Parsing: " + exclusionFile.getFile());
-
-            final InputStream input = exclusionFile.openStream();
-            final String xml = IOUtils.toString(input);
-            log.info(xml);
-            final ByteArrayInputStream stream = new ByteArrayInputStream(xml.getBytes());
-
-            final ExclusionsBean bean = (ExclusionsBean) this.xStream.fromXML(stream);
-            if (bean.getExclusions() != null) {
-                for (final Exclusion exclusion : bean.getExclusions()) {
-                    this.exclusions.add(exclusion.getValue());
-                }
-            }
+    /**
+     * Recompiles the rules from the files and puts them in force.
+     *
+     * @return whether the rules were replaced; on failure the previous rules stay in force
+     */
+    public boolean reload() {
+        final Path directory = rulesDirectory();
+        try {
+            RuleSet.install(RuleLoader.load(directory));
+            log.info("Renaming rules reloaded from {}", directory);
+            return true;
+        } catch (final RuntimeException logged) {
+            log.error("Could not reload the renaming rules from " + directory + ", keeping the previous ones", logged);
+            return false;
         }
     }
 
+    /**
+     * Returns whether the string is an exclusion or, when considering parts, contains one.
+     */
     public boolean hasExclusionFor(final String str, final boolean considerPartString) {
-        for (final String exclusion : this.exclusions) {
-            if (str.equalsIgnoreCase(exclusion) || (considerPartString && str.contains(exclusion.toLowerCase()))) {
-                return true;
-            }
-        }
+        final ExclusionIndex exclusions = RuleSet.current().getExclusions();
+        return exclusions.isExclusion(str) || (considerPartString && exclusions.containsExclusion(str));
+    }
 
-        return false;
+    /**
+     * Returns whether the string starts with an exclusion.
+     */
+    public boolean startsWithExclusion(final String str) {
+        return RuleSet.current().getExclusions().startsWithExclusion(str);
     }
 
     public List<String> getExclusions() {
-        return exclusions;
+        return RuleSet.current().getExclusions().getValues();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    private Path rulesDirectory() {
+        return Strings.isNullOrEmpty(rulesDir) ? null : Path.of(rulesDir).toAbsolutePath();
+    }
+
+    private void watch(final Path directory) throws IOException {
+        this.watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                           StandardWatchEventKinds.ENTRY_DELETE);
+        final Thread thread = new Thread(() -> watchLoop(watcher), "RenameRules-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for renaming rule changes", directory);
+    }
+
+    private void watchLoop(final WatchService service) {
+        try {
+            while (true) {
+                if (isRuleChange(service.take())) {
+                    Thread.sleep(RELOAD_DELAY_MS);
+                    // the reload reads every file, so the events of the settled burst are consumed with it
+                    for (WatchKey key = service.poll(); key != null; key = service.poll()) {
+                        isRuleChange(key);
+                    }
+                    reload();
+                }
+            }
+        } catch (final ClosedWatchServiceException | InterruptedException ignored) {
+            log.debug("Stopped watching the renaming rules");
+        }
+    }
+
+    private static boolean isRuleChange(final WatchKey key) {
+        boolean changed = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || RuleLoader.FILES.contains(String.valueOf(event.context()));
+        }
+        key.reset();
+        return changed;
     }
 
 }
@@ -0,0 +1,123 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import ca.joaoborges.filemanager.type.ReplacingConstants;
+
+/**
+ * Character-level steps of the renaming pipeline, working on a reusable per-thread buffer.
+ * <p>
+ * {@link #normalizeBase(String)} applies the {@link RenameRules} and strips the leading characters that are not
+ * lowercase letters, unless the name starts with an exclusion. {@link #finish(String, String)} appends the
+ * extension, unescapes XML entities and title-cases the name in a single pass; it gives the same result as
+ * {@code WordUtils.capitalizeFully(StringEscapeUtils.unescapeXml(name))} did.
+ */
+@Component
+public class NameNormalizer {
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    @Autowired
+    private ExclusionManagerService exclusions;
+
+    /**
+     * Filters a lowercased base name (no extension) and strips its leading non-letters.
+     */
+    public String normalizeBase(final String base) {
+        final String filtered = RenameRules.defaults().apply(base);
+        if (exclusions.startsWithExclusion(filtered)) {
+            return filtered;
+        }
+        int start = 0;
+        while (start < filtered.length() && !isLowercaseAscii(filtered.charAt(start))) {
+            start++;
+        }
+        // a name without any letter is left as it is rather than emptied
+        return start == filtered.length() ? filtered : filtered.substring(start);
+    }
+
+    /**
+     * Assembles the final name: base, point, extension; XML entities unescaped; every word capitalized and the
+     * rest lowercased.
+     */
+    public String finish(final String base, final String extension) {
+        final StringBuilder name = BUFFERS.get();
+        name.setLength(0);
+        boolean capitalizeNext = true;
+        final String source = base + ReplacingConstants.POINT + extension;
+        int i = 0;
+        while (i < source.length()) {
+            int codePoint = source.codePointAt(i);
+            int consumed = Character.charCount(codePoint);
+            if (codePoint == '&') {
+                final long entity = unescapeEntity(source, i);
+                if (entity >= 0) {
+                    codePoint = (int) (entity >>> 32);
+                    consumed = (int) entity;
+                }
+            }
+            if (Character.isWhitespace(codePoint)) {
+                capitalizeNext = true;
+                name.appendCodePoint(codePoint);
+            } else if (capitalizeNext) {
+                name.appendCodePoint(Character.toTitleCase(Character.toLowerCase(codePoint)));
+                capitalizeNext = false;
+            } else {
+                name.appendCodePoint(Character.toLowerCase(codePoint));
+            }
+            i += consumed;
+        }
+        return name.toString();
+    }
+
+    private static boolean isLowercaseAscii(final char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    /**
+     * Decodes the XML entity starting at the ampersand: the five named XML entities and decimal or hexadecimal
+     * character references.
+     *
+     * @return the code point in the high half and the entity length in the low half, or -1 when there is no
+     *         entity at the position
+     */
+    private static long unescapeEntity(final String text, final int ampersand) {
+        final int semicolon = text.indexOf(';', ampersand + 1);
+        if (semicolon < 0 || semicolon - ampersand < 3) {
+            return -1;
+        }
+        final String body = text.substring(ampersand + 1, semicolon);
+        final int codePoint;
+        switch (body) {
+            case "lt" -> codePoint = '<';
+            case "gt" -> codePoint = '>';
+            case "amp" -> codePoint = '&';
+            case "quot" -> codePoint = '"';
+            case "apos" -> codePoint = '\'';
+            default -> codePoint = numericReference(body);
+        }
+        if (codePoint < 0) {
+            return -1;
+        }
+        return ((long) codePoint << 32) | (semicolon - ampersand + 1);
+    }
+
+    private static int numericReference(final String body) {
+        if (body.charAt(0) != '#') {
+            return -1;
+        }
+        final boolean hex = body.charAt(1) == 'x' || body.charAt(1) == 'X';
+        final String digits = body.substring(hex ? 2 : 1);
+        if (digits.isEmpty() || Character.digit(digits.charAt(0), hex ? 16 : 10) < 0) {
+            return -1;
+        }
+        try {
+            final int codePoint = Integer.parseInt(digits, hex ? 16 : 10);
+            return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+        } catch (final NumberFormatException notNumeric) {
+            return -1;
+        }
+    }
+
+}
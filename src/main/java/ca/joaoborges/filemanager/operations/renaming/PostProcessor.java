@@ -1,14 +1,14 @@
 package ca.joaoborges.filemanager.operations.renaming;
 
 import java.io.Serializable;
-import java.util.Collection;
+import java.util.List;
 
 import ca.joaoborges.filemanager.exception.FileManagerException;
 import ca.joaoborges.filemanager.model.FileDTO;
 import ca.joaoborges.filemanager.operations.renaming.Renamer.RenamingResult;
 
 /**
- * Marks a post processor that can be selected for a given file type.
+ * Marks a post processor that can be selected for a given file type; see {@link PostProcessorRegistry}.
  */
 public interface PostProcessor extends Serializable {
 
@@ -22,9 +22,36 @@ public interface PostProcessor extends Serializable {
     String processFileName(String fileName);
 
     /**
-     * Processes the file itself, applying the desired modifications.
+     * Processes the file itself, applying the desired modifications. Further renames must claim their name from the
+     * snapshot of the file's directory.
      */
-    void processFile(FileDTO file, RenamingResult result, Collection<String> originalFileList)
+    void processFile(FileDTO file, RenamingResult result, DirectorySnapshot snapshot)
             throws FileManagerException;
 
+    /**
+     * Processes the files renamed in one directory, once its renames are done. Processors can override it to overlap
+     * the I/O of several files; by default each file goes through {@link #processFile} and a failure does not stop
+     * the others.
+     *
+     * @throws FileManagerException the first failure, with the later ones suppressed
+     */
+    default void processFiles(final List<FileDTO> files, final RenamingResult result,
+            final DirectorySnapshot snapshot) throws FileManagerException {
+        FileManagerException failure = null;
+        for (final FileDTO file : files) {
+            try {
+                processFile(file, result, snapshot);
+            } catch (final FileManagerException collected) {
+                if (failure == null) {
+                    failure = collected;
+                } else {
+                    failure.addSuppressed(collected);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
 }
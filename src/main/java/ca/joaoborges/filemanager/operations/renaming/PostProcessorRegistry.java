@@ -0,0 +1,40 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import ca.joaoborges.filemanager.type.Extension;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves the post processor of each {@link Extension}, once, at startup.
+ * <p>
+ * Post processors are beans named {@link PostProcessor#BEAN_NAME_FORMAT} followed by the file type; files of a type
+ * without one are not renamed.
+ */
+@Component
+@Slf4j
+public class PostProcessorRegistry {
+
+    private final Map<Extension, PostProcessor> processors = new EnumMap<>(Extension.class);
+
+    public PostProcessorRegistry(final Map<String, PostProcessor> beans) {
+        for (final Extension extension : Extension.values()) {
+            final PostProcessor processor = beans.get(PostProcessor.BEAN_NAME_FORMAT + extension.getType());
+            if (processor != null) {
+                processors.put(extension, processor);
+            }
+        }
+        log.debug("Post processors: {}", processors);
+    }
+
+    /**
+     * Returns the post processor for files with the given extension, or null when their type has none.
+     */
+    public PostProcessor forExtension(final Extension extension) {
+        return processors.get(extension);
+    }
+
+}
@@ -0,0 +1,338 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ca.joaoborges.filemanager.exception.FileManagerException;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-ahead journal of the renames of a run.
+ * <p>
+ * A batch of renames, typically those of one directory, is appended to the run's journal file as intents and forced
+ * to disk with a single sync before any of them is applied; the outcome of each is appended afterwards. The file is
+ * deleted when the run closes, so a journal found at startup belongs to a run that did not finish: its renames are
+ * then either undone, newest first ({@link Recovery#ROLLBACK}), or completed ({@link Recovery#REPLAY}), according to
+ * {@code filemanager.rename.journal-recovery}. Renames never replace an existing file.
+ * <p>
+ * The journal directory may be shared by several processes (the server and oneshot CLI runs): a run holds an
+ * exclusive lock on its journal while it is open, and recovery skips the journals locked by a live run.
+ */
+@Component
+@Slf4j
+public class RenameJournal {
+
+    static final String SUFFIX = ".journal";
+
+    private static final char INTENT = 'I';
+    private static final char DONE = 'D';
+    private static final char FAILED = 'F';
+
+    /**
+     * What to do with the renames of an interrupted run.
+     */
+    public enum Recovery {
+        /** Restore the original names. */
+        ROLLBACK,
+        /** Apply the renames that were intended but not done. */
+        REPLAY
+    }
+
+    /**
+     * A single rename.
+     */
+    public record Move(Path from, Path to) {
+    }
+
+    private final Path directory;
+    private final Recovery recovery;
+
+    public RenameJournal(@Value("${filemanager.rename.journal-dir:${user.home}/.filemanager/rename-journal}")
+                         final String directory,
+                         @Value("${filemanager.rename.journal-recovery:ROLLBACK}") final Recovery recovery) {
+        this.directory = Path.of(directory);
+        this.recovery = recovery;
+    }
+
+    /**
+     * Opens the journal of a new run.
+     *
+     * @throws FileManagerException when the journal cannot be created; nothing must be renamed then
+     */
+    public Run open() {
+        return open(CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #open()}, for a run that stops applying renames once the token is cancelled.
+     */
+    public Run open(final CancellationToken cancellation) {
+        final Path file = directory.resolve("rename-" + System.currentTimeMillis() + "-"
+                + UUID.randomUUID().toString().substring(0, 8) + SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            try {
+                channel.lock();
+            } catch (final IOException | RuntimeException closed) {
+                channel.close();
+                Files.deleteIfExists(file);
+                throw closed;
+            }
+            return new Run(file, channel, cancellation);
+        } catch (final IOException rethrown) {
+            throw new FileManagerException("Could not create the rename journal " + file, rethrown);
+        }
+    }
+
+    /**
+     * Recovers the runs left unfinished by a previous process.
+     */
+    @PostConstruct
+    void recover() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> journals = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (final Path journal : journals) {
+                recover(journal);
+            }
+        } catch (final IOException logged) {
+            log.error("Could not list the rename journals in " + directory, logged);
+        }
+    }
+
+    /**
+     * Recovers one unfinished run and deletes its journal; a journal locked by a live run is left alone.
+     *
+     * @return the number of renames undone or completed
+     */
+    int recover(final Path journal) throws IOException {
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (final OverlappingFileLockException openHere) {
+                log.debug("Rename journal {} belongs to a run of this process", journal);
+                return 0;
+            }
+            if (lock == null) {
+                log.info("Rename journal {} belongs to a run of another process, not recovered", journal);
+                return 0;
+            }
+            final int recovered = recover(journal, read(channel));
+            Files.delete(journal);
+            return recovered;
+        } catch (final NoSuchFileException finished) {
+            // the run closed in the meantime
+            return 0;
+        }
+    }
+
+    private int recover(final Path journal, final Map<Long, Entry> entries) {
+        final List<Entry> ordered = new ArrayList<>(entries.values());
+        int recovered = 0;
+        if (recovery == Recovery.ROLLBACK) {
+            for (int i = ordered.size() - 1; i >= 0; i--) {
+                final Entry entry = ordered.get(i);
+                // an intent without an outcome may or may not have been applied; the files tell
+                if (entry.state != FAILED && exists(entry.move.to()) && !exists(entry.move.from())) {
+                    recovered += moveQuietly(entry.move.to(), entry.move.from());
+                }
+            }
+        } else {
+            for (final Entry entry : ordered) {
+                if (entry.state == INTENT && exists(entry.move.from()) && !exists(entry.move.to())) {
+                    recovered += moveQuietly(entry.move.from(), entry.move.to());
+                }
+            }
+        }
+        if (!entries.isEmpty()) {
+            log.warn("Recovered an interrupted rename run from {}: {} of {} renames {}", journal, recovered,
+                     entries.size(), recovery == Recovery.ROLLBACK ? "undone" : "completed");
+        }
+        return recovered;
+    }
+
+    private static Map<Long, Entry> read(final FileChannel channel) throws IOException {
+        final ByteBuffer bytes = ByteBuffer.allocate((int) channel.size());
+        while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+            // read it all
+        }
+        bytes.flip();
+        final Map<Long, Entry> entries = new LinkedHashMap<>();
+        for (final String line : StandardCharsets.UTF_8.decode(bytes).toString().split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            final String[] fields = line.split("\t", -1);
+            try {
+                final long sequence = Long.parseLong(fields[1]);
+                if (fields[0].length() == 1 && fields[0].charAt(0) == INTENT && fields.length == 4) {
+                    entries.put(sequence, new Entry(new Move(Path.of(unescape(fields[2])), Path.of(unescape(fields[3])))));
+                } else if (entries.containsKey(sequence) && fields.length == 2) {
+                    entries.get(sequence).state = fields[0].charAt(0);
+                }
+            } catch (final RuntimeException ignored) {
+                // a record torn by the crash; the files are checked before anything is moved anyway
+            }
+        }
+        return entries;
+    }
+
+    private static boolean exists(final Path path) {
+        return Files.exists(path, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    private static int moveQuietly(final Path from, final Path to) {
+        try {
+            Files.move(from, to);
+            return 1;
+        } catch (final IOException logged) {
+            log.error("Could not recover rename {} -> {}: {}", from, to, logged.getMessage());
+            return 0;
+        }
+    }
+
+    private static String escape(final Path path) {
+        final String text = path.toString();
+        final StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '%' -> escaped.append("%25");
+                case '\t' -> escaped.append("%09");
+                case '\n' -> escaped.append("%0A");
+                case '\r' -> escaped.append("%0D");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String unescape(final String text) {
+        return text.replace("%09", "\t").replace("%0A", "\n").replace("%0D", "\r").replace("%25", "%");
+    }
+
+    private static final class Entry {
+
+        private final Move move;
+        private char state = INTENT;
+
+        private Entry(final Move move) {
+            this.move = move;
+        }
+    }
+
+    /**
+     * The journal of one run; batches may be applied from several threads at once.
+     */
+    public static final class Run implements AutoCloseable {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final AtomicLong sequence = new AtomicLong();
+        private final CancellationToken cancellation;
+
+        private Run(final Path file, final FileChannel channel, final CancellationToken cancellation) {
+            this.file = file;
+            this.channel = channel;
+            this.cancellation = cancellation;
+        }
+
+        /**
+         * Journals the renames, then applies them in order. A rename fails rather than replace an existing file.
+         *
+         * @return whether each rename was applied
+         * @throws FileManagerException when the intents cannot be journaled; nothing was renamed then
+         */
+        public boolean[] apply(final List<Move> moves) {
+            final boolean[] applied = new boolean[moves.size()];
+            if (moves.isEmpty()) {
+                return applied;
+            }
+            final long first = sequence.getAndAdd(moves.size());
+            final StringBuilder records = new StringBuilder();
+            for (int i = 0; i < moves.size(); i++) {
+                records.append(INTENT).append('\t').append(first + i).append('\t')
+                        .append(escape(moves.get(i).from())).append('\t').append(escape(moves.get(i).to())).append('\n');
+            }
+            write(records, true);
+
+            records.setLength(0);
+            for (int i = 0; i < moves.size(); i++) {
+                final Move move = moves.get(i);
+                try {
+                    // once cancelled, the remaining renames are recorded as not applied
+                    if (!cancellation.isCancelled()) {
+                        Files.move(move.from(), move.to());
+                        applied[i] = true;
+                    }
+                } catch (final IOException logged) {
+                    log.warn("Could not rename {} to {}: {}", move.from(), move.to(), logged.toString());
+                }
+                records.append(applied[i] ? DONE : FAILED).append('\t').append(first + i).append('\n');
+            }
+            // outcomes need no sync: recovery checks the files for intents without one
+            write(records, false);
+            return applied;
+        }
+
+        @Override
+        public void close() {
+            try {
+                // emptied while still locked: should another process open the journal before it is deleted, it
+                // finds nothing to recover
+                channel.truncate(0);
+                channel.force(false);
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (final IOException rethrown) {
+                throw new FileManagerException("Could not close the rename journal " + file, rethrown);
+            }
+        }
+
+        Path getFile() {
+            return file;
+        }
+
+        private void write(final CharSequence records, final boolean force) {
+            final ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(records));
+            try {
+                synchronized (this) {
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                }
+                if (force) {
+                    channel.force(false);
+                }
+            } catch (final IOException rethrown) {
+                throw new FileManagerException("Could not write the rename journal " + file, rethrown);
+            }
+        }
+    }
+
+}
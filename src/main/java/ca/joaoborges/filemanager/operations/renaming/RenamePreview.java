@@ -0,0 +1,96 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+/**
+ * The names a rename run would give, a directory at a time in the order the directories are done; see
+ * {@link Renamer#preview}.
+ * <p>
+ * A preview is filled in the background while it is already being read: previews are kept for a while by
+ * {@link RenamePreviews} and read back a page at a time, so the first pages of a large preview can be shown before
+ * the rest of the tree has been listed. {@link #isComplete()} tells when no more entries will come.
+ */
+public class RenamePreview implements Serializable {
+
+    private static final long serialVersionUID = -2460318209623455128L;
+
+    @Getter
+    private final String previewId = UUID.randomUUID().toString();
+    @Getter
+    private final String directory;
+    private final List<Entry> entries = new ArrayList<>();
+    private volatile boolean complete;
+    @Getter
+    private volatile String error;
+    private final transient CountDownLatch completion = new CountDownLatch(1);
+
+    RenamePreview(final String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Appends the entries of one directory, which stay together in the pages.
+     */
+    synchronized void addAll(final List<Entry> directoryEntries) {
+        entries.addAll(directoryEntries);
+    }
+
+    /**
+     * Marks the preview as complete.
+     *
+     * @param failure why the preview stopped early, or null when the whole tree was previewed
+     */
+    void complete(final String failure) {
+        this.error = failure;
+        this.complete = true;
+        completion.countDown();
+    }
+
+    /**
+     * Returns whether every entry has been added, or the preview failed.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Waits until the preview is complete.
+     *
+     * @return whether it completed within the timeout
+     */
+    public boolean awaitCompletion(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return completion.await(timeout, unit);
+    }
+
+    /**
+     * Returns the number of entries added so far.
+     */
+    public synchronized int getTotal() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the entries of a zero-based page, as far as they have been added; empty past the last page.
+     */
+    public synchronized List<Entry> page(final int page, final int size) {
+        final long from = (long) page * size;
+        if (page < 0 || size <= 0 || from >= entries.size()) {
+            return List.of();
+        }
+        return List.copyOf(entries.subList((int) from, (int) Math.min(entries.size(), from + size)));
+    }
+
+    /**
+     * A file of the given directory and its proposed name.
+     */
+    public record Entry(String directory, String from, String to) implements Serializable {
+    }
+
+}
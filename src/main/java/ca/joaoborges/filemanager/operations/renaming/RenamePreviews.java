@@ -0,0 +1,38 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the recent rename previews so they can be read page by page.
+ * <p>
+ * Only the last few previews are kept, each until it has not been read for {@link #EXPIRY_MINUTES} minutes.
+ */
+@Component
+public class RenamePreviews {
+
+    static final int MAX_PREVIEWS = 16;
+    static final int EXPIRY_MINUTES = 15;
+
+    private final Cache<String, RenamePreview> previews = CacheBuilder.newBuilder()
+            .maximumSize(MAX_PREVIEWS)
+            .expireAfterAccess(EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    public RenamePreview put(final RenamePreview preview) {
+        previews.put(preview.getPreviewId(), preview);
+        return preview;
+    }
+
+    /**
+     * Returns the preview with the given id, or null when it is unknown or expired.
+     */
+    public RenamePreview get(final String previewId) {
+        return previews.getIfPresent(previewId);
+    }
+
+}
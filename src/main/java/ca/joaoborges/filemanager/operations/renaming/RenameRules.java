@@ -0,0 +1,59 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ca.joaoborges.filemanager.operations.common.AhoCorasick;
+import ca.joaoborges.filemanager.type.ReplacingConstants;
+
+/**
+ * Compiled name filters: the strings of the StringsToFilter catalog and the patterns of RegexesToFilter.
+ * <p>
+ * The literal strings are matched case-insensitively, all at once, by an {@link AhoCorasick} automaton; the
+ * regexes are joined into one precompiled alternation. {@link #apply(String)} therefore costs two passes over
+ * the name no matter how many filters are configured. Every match is replaced with a space. Instances are
+ * immutable and safe to share between threads.
+ */
+public final class RenameRules {
+
+    private final AhoCorasick literals;
+    private final Pattern regexes;
+
+    public RenameRules(final Collection<String> literals, final Collection<String> regexes) {
+        this.literals = new AhoCorasick(literals);
+        final List<String> alternatives = new ArrayList<>();
+        for (final String regex : regexes) {
+            if (regex != null && !regex.isBlank()) {
+                alternatives.add("(?:" + regex + ")");
+            }
+        }
+        this.regexes = alternatives.isEmpty() ? null : Pattern.compile(String.join("|", alternatives));
+    }
+
+    /**
+     * Returns the rules in force; see {@link RuleSet}.
+     */
+    public static RenameRules defaults() {
+        return RuleSet.current().getFilters();
+    }
+
+    /**
+     * Replaces every filtered string, then every filtered pattern, with a space and trims the result.
+     * Literals go first so that e.g. an underscore joining a bracketed tag to the name does not extend the
+     * pattern's match over the name.
+     */
+    public String apply(final String name) {
+        String result = literals.replaceAll(name, ReplacingConstants.SPACE).trim();
+        if (regexes != null) {
+            final Matcher matcher = regexes.matcher(result);
+            if (matcher.find()) {
+                result = matcher.replaceAll(ReplacingConstants.SPACE).trim();
+            }
+        }
+        return result;
+    }
+
+}
@@ -1,33 +1,45 @@
 package ca.joaoborges.filemanager.operations.renaming;
 
 import java.io.File;
-import java.util.Collection;
-import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
 
-import org.apache.commons.text.StringEscapeUtils;
-import org.apache.commons.text.WordUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import ca.joaoborges.filemanager.exception.FileManagerException;
+import ca.joaoborges.filemanager.exception.OperationCancelledException;
 import ca.joaoborges.filemanager.model.Directory;
 import ca.joaoborges.filemanager.model.ExtensionFilter;
 import ca.joaoborges.filemanager.model.FileDTO;
-import ca.joaoborges.filemanager.model.util.Message;
 import ca.joaoborges.filemanager.operations.NameUtils;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
 import ca.joaoborges.filemanager.operations.common.OperationConstants;
-import ca.joaoborges.filemanager.operations.common.SpringUtils;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
 import ca.joaoborges.filemanager.operations.interfaces.FileOperation;
 import ca.joaoborges.filemanager.operations.interfaces.OperationResult;
 import ca.joaoborges.filemanager.operations.renaming.Renamer.RenamingResult;
 import ca.joaoborges.filemanager.type.Extension;
-import ca.joaoborges.filemanager.type.ReplacingConstants;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service responsible for applying the renaming rules and producing the new file names.
+ * <p>
+ * Renames never cross directories, so with sub-directories included every directory is an independent task: up to
+ * {@code filemanager.rename.workers} directories are renamed at once, each by a single worker, which keeps the
+ * collision checks of a directory sequential.
  */
 @Service(value = OperationConstants.RENAME_OPERATION)
 @Slf4j
@@ -35,10 +47,31 @@ public class Renamer implements FileOperation<RenamingResult> {
 
     public static final String INCLUDE_SUB_DIRECTORIES = "INCLUDE_SUB_DIRECTORIES";
 
+    /**
+     * Optional parameter overriding the number of directories renamed concurrently (filemanager.rename.workers);
+     * 1 renames everything on the calling thread.
+     */
+    public static final String WORKERS = "RENAME_WORKERS";
+
     private static final long serialVersionUID = -8287266807900801749L;
 
     @Autowired
-    private ExclusionManagerService exclusions;
+    private NameNormalizer normalizer;
+
+    @Autowired
+    private PostProcessorRegistry postProcessors;
+
+    @Autowired
+    private RenameJournal journal;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Autowired
+    private IoScheduler ioScheduler;
+
+    @Value("${filemanager.rename.workers:4}")
+    private int defaultWorkers;
 
     /**
      * Renames the files contained in the directory.
@@ -49,6 +82,7 @@ public class Renamer implements FileOperation<RenamingResult> {
         final Directory contentDirectory = (Directory) params.get(Directory.class.getName());
         ExtensionFilter requestedFilter = (ExtensionFilter) params.get(ExtensionFilter.class.getName());
         Boolean includeSubDirectories = (Boolean) params.get(INCLUDE_SUB_DIRECTORIES);
+        final Integer workers = (Integer) params.get(WORKERS);
         final RenamingResult result = new RenamingResult(contentDirectory);
 
         // sub-directories are excluded unless explicitly requested
@@ -56,158 +90,267 @@ public class Renamer implements FileOperation<RenamingResult> {
             includeSubDirectories = false;
         }
         if (requestedFilter == null) {
-            requestedFilter = ExtensionFilter.allAcceptedFilter();
-            requestedFilter.setAcceptDirectories(includeSubDirectories);
+            requestedFilter = defaultFilter(includeSubDirectories);
         }
 
-        this.renameDirectoryContents(contentDirectory, requestedFilter, result);
+        final int lanes = workers != null ? workers : defaultWorkers;
+        result.cancellation = CancellationToken.of(params);
+        try (RenameJournal.Run run = journal.open(result.cancellation)) {
+            result.journal = run;
+            if (includeSubDirectories && lanes > 1) {
+                this.renameTreeInParallel(contentDirectory, requestedFilter, result, lanes);
+            } else {
+                this.renameTree(contentDirectory, requestedFilter, result);
+            }
+            result.awaitDeferred();
+        }
 
         return result;
     }
 
-    private void renameDirectoryContents(final Directory contentDirectory, final ExtensionFilter requestedFilter,
-            final RenamingResult result) {
-        final Collection<String> originalFileList = contentDirectory.listFileNames(requestedFilter);
-        final Collection<File> contents = contentDirectory.listContents(requestedFilter);
-        log.debug("Total " + contents.size());
-        for (final File fileToRename : contents) {
-            if (fileToRename.isDirectory()) {
-                final Directory subDirectory = new Directory(fileToRename.getPath());
-                this.renameDirectoryContents(subDirectory, requestedFilter, result);
-            } else if (!fileToRename.isHidden() && fileToRename.canRead() && fileToRename.canWrite()) {
-                try {
-                    final String originalName = fileToRename.getName();
-                    log.debug("Renaming: " + originalName);
+    /**
+     * Starts computing the names a rename run would give, without renaming anything, and returns the preview at
+     * once; it is filled in the background, a directory at a time, and marked complete at the end. Up to
+     * {@code filemanager.rename.workers} directories are previewed at once. The directories are listed and nothing
+     * else is read: names that post processors derive from the file contents, such as audio tags, are not
+     * previewed. The collisions of a directory are resolved in name order, as the rename does.
+     */
+    public RenamePreview preview(final Map<String, Object> params) {
+        final Directory contentDirectory = (Directory) params.get(Directory.class.getName());
+        final boolean includeSubDirectories = Boolean.TRUE.equals(params.get(INCLUDE_SUB_DIRECTORIES));
+        ExtensionFilter requestedFilter = (ExtensionFilter) params.get(ExtensionFilter.class.getName());
+        if (requestedFilter == null) {
+            requestedFilter = defaultFilter(includeSubDirectories);
+        }
+        final Integer workers = (Integer) params.get(WORKERS);
+        final int lanes = workers != null ? workers : defaultWorkers;
+
+        final CancellationToken cancellation = CancellationToken.of(params);
+        final RenamePreview preview = new RenamePreview(contentDirectory.getPath());
+        final ExtensionFilter filter = requestedFilter;
+        workerThreads.factory("RenamePreview")
+                .newThread(() -> this.previewTree(contentDirectory, filter, preview, cancellation, lanes))
+                .start();
+        return preview;
+    }
 
-                    String newName = originalName;
-                    newName = newName.trim().toLowerCase();
-                    final String[] nameSeparated = NameUtils.splitExtension(newName);
-                    final String extension = nameSeparated[1];
-                    final Extension ext = Extension.valueOf(extension.toUpperCase());
-                    // try to find a post processor matching the file type
-                    final PostProcessor postProcessor = SpringUtils.getContext()
-                            .getBean(PostProcessor.BEAN_NAME_FORMAT + ext.getType(), PostProcessor.class);
-
-                    newName = nameSeparated[0];
-                    newName = newName.trim();
-                    newName = replaces(newName);
-                    newName = newName.trim();
-                    newName = processNumbers(newName);
-                    newName = newName.trim();
-                    newName = postProcessor.processFileName(newName);
-                    newName = newName.trim();
-                    // assemble the final name
-                    newName += ReplacingConstants.POINT + extension;
-
-                    // remove escaped characters
-                    newName = StringEscapeUtils.unescapeXml(newName);
-
-                    // title case for a nicer-looking name
-                    newName = WordUtils.capitalizeFully(newName);
-
-                    File renamedFile = new File(contentDirectory.getPath() + File.separator + newName);
-                    if (!originalName.equals(newName)) {
-                        if (originalFileList.contains(newName)) {
-                            newName = "(" + System.currentTimeMillis() + ") " + newName;
-                            renamedFile = new File(contentDirectory.getPath() + File.separator + newName);
-                        }
-                        fileToRename.renameTo(renamedFile);
+    /**
+     * Previews each directory of the tree as a task of its own, like {@link #renameTreeInParallel}.
+     */
+    private void previewTree(final Directory contentDirectory, final ExtensionFilter requestedFilter,
+            final RenamePreview preview, final CancellationToken cancellation, final int workers) {
+        final ExecutorService pool = workerThreads.executor("RenamePreview", workers);
+        final CompletionService<List<Directory>> tasks = new ExecutorCompletionService<>(pool);
+        String failure = null;
+        try {
+            tasks.submit(() -> this.previewDirectory(contentDirectory, requestedFilter, preview, cancellation));
+            int pending = 1;
+            while (pending > 0) {
+                final List<Directory> subDirectories = tasks.take().get();
+                pending--;
+                for (final Directory subDirectory : subDirectories) {
+                    tasks.submit(() -> this.previewDirectory(subDirectory, requestedFilter, preview, cancellation));
+                    pending++;
+                }
+            }
+        } catch (final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            failure = "Preview interrupted";
+        } catch (final ExecutionException logged) {
+            log.error("Could not preview the rename of " + contentDirectory.getPath(), logged.getCause());
+            failure = String.valueOf(logged.getCause().getMessage());
+        } finally {
+            pool.shutdownNow();
+            preview.complete(failure);
+        }
+    }
 
-                        result.renamedFiles.put(renamedFile.getPath(), fileToRename.getPath());
-                        log.debug("Final name: " + newName);
-                        // run additional file-level operations, if any
-                        postProcessor.processFile(new FileDTO(renamedFile, ext, contentDirectory), result,
-                                originalFileList);
+    /**
+     * Adds the proposed names of a single directory to the preview.
+     *
+     * @return the sub-directories accepted by the filter, left for the caller to visit
+     */
+    private List<Directory> previewDirectory(final Directory directory, final ExtensionFilter requestedFilter,
+            final RenamePreview preview, final CancellationToken cancellation) {
+        try (WorkerThreads.Permit held = workerThreads.acquire("RenamePreview", directory.getDirectory().toPath())) {
+            cancellation.throwIfCancelled();
+            final List<Directory> subDirectories = new ArrayList<>();
+            final List<RenamePreview.Entry> entries = new ArrayList<>();
+            final DirectorySnapshot snapshot = DirectorySnapshot.of(directory, requestedFilter);
+            for (final File file : snapshot.getContents()) {
+                if (snapshot.isDirectory(file)) {
+                    subDirectories.add(new Directory(file.getPath()));
+                } else if (!snapshot.isHidden(file)) {
+                    final String originalName = file.getName();
+                    final String newName = this.proposeName(originalName);
+                    if (newName != null && !originalName.equals(newName)) {
+                        entries.add(new RenamePreview.Entry(directory.getPath(), originalName,
+                                                            snapshot.claim(originalName, newName)));
                     }
-
-                } catch (final Exception logged) {
-                    log.error("There is a problem with file " + fileToRename.getName(), logged);
                 }
             }
+            preview.addAll(entries);
+            return subDirectories;
+        }
+    }
+
+    private static ExtensionFilter defaultFilter(final boolean includeSubDirectories) {
+        final ExtensionFilter filter = ExtensionFilter.allAcceptedFilter();
+        filter.setAcceptDirectories(includeSubDirectories);
+        return filter;
+    }
+
+    private void renameTree(final Directory contentDirectory, final ExtensionFilter requestedFilter,
+            final RenamingResult result) {
+        for (final Directory subDirectory : this.renameDirectoryContents(contentDirectory, requestedFilter, result)) {
+            this.renameTree(subDirectory, requestedFilter, result);
         }
     }
 
     /**
-     * Groups the name correction operations.
+     * Renames each directory of the tree as a task of its own; the sub-directories found by a task are scheduled
+     * once it completes.
      */
-    static String replaces(final String newName) {
-        return simpleReplacements(newName);
+    private void renameTreeInParallel(final Directory contentDirectory, final ExtensionFilter requestedFilter,
+            final RenamingResult result, final int workers) {
+        final ExecutorService pool = workerThreads.executor("Renamer", workers);
+        final CompletionService<List<Directory>> tasks = new ExecutorCompletionService<>(pool);
+        try {
+            tasks.submit(() -> this.renameDirectoryHoldingPermit(contentDirectory, requestedFilter, result));
+            int pending = 1;
+            while (pending > 0) {
+                final List<Directory> subDirectories = tasks.take().get();
+                pending--;
+                for (final Directory subDirectory : subDirectories) {
+                    tasks.submit(() -> this.renameDirectoryHoldingPermit(subDirectory, requestedFilter, result));
+                    pending++;
+                }
+            }
+        } catch (final InterruptedException rethrown) {
+            Thread.currentThread().interrupt();
+            throw new FileManagerException("Rename interrupted", rethrown);
+        } catch (final ExecutionException rethrown) {
+            if (rethrown.getCause() instanceof final OperationCancelledException cancelled) {
+                throw cancelled;
+            }
+            throw new FileManagerException("Could not rename " + contentDirectory.getPath(), rethrown.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Directory> renameDirectoryHoldingPermit(final Directory contentDirectory,
+            final ExtensionFilter requestedFilter, final RenamingResult result) {
+        try (WorkerThreads.Permit held = workerThreads.acquire("Renamer", contentDirectory.getDirectory().toPath())) {
+            return this.renameDirectoryContents(contentDirectory, requestedFilter, result);
+        }
     }
 
     /**
-     * Replaces unwanted strings with spaces.
+     * Renames the files of a single directory.
+     *
+     * @return the sub-directories accepted by the filter, left for the caller to visit
      */
-    private static String simpleReplacements(String newName) {
-        newName = doReplacement(newName, ReplacingConstants.PLUS, ReplacingConstants.SPACE);
+    private List<Directory> renameDirectoryContents(final Directory contentDirectory,
+            final ExtensionFilter requestedFilter, final RenamingResult result) {
+        final List<Directory> subDirectories = new ArrayList<>();
+        final List<RenameJournal.Move> moves = new ArrayList<>();
+        final List<Extension> types = new ArrayList<>();
+        final DirectorySnapshot snapshot = DirectorySnapshot.of(contentDirectory, requestedFilter);
+        log.debug("Total " + snapshot.getContents().size());
+        // plan the renames of the directory first; names are claimed in name order
+        for (final File fileToRename : snapshot.getContents()) {
+            result.cancellation.throwIfCancelled();
+            ioScheduler.yieldToInteractive();
+            if (snapshot.isDirectory(fileToRename)) {
+                subDirectories.add(new Directory(fileToRename.getPath()));
+            } else if (!snapshot.isHidden(fileToRename) && fileToRename.canRead() && fileToRename.canWrite()) {
+                try {
+                    final String originalName = fileToRename.getName();
+                    log.debug("Renaming: " + originalName);
 
-        final Enumeration<String> filterStrings = Message.getLocalizer(Message.STRINGS_TO_FILTER, null).getKeys();
+                    final String[] nameSeparated = NameUtils.splitExtension(originalName.trim().toLowerCase());
+                    final Extension ext = Extension.valueOf(nameSeparated[1].toUpperCase());
+                    final PostProcessor postProcessor = postProcessors.forExtension(ext);
+                    if (postProcessor == null) {
+                        log.debug("No post processor for {} files, {} is not renamed", ext, originalName);
+                        continue;
+                    }
+                    String newName = this.proposeName(nameSeparated, postProcessor);
 
-        while (filterStrings.hasMoreElements()) {
-            final String key = filterStrings.nextElement();
-            final String filter = Message.getMessage(Message.STRINGS_TO_FILTER, key);
+                    if (!originalName.equals(newName)) {
+                        newName = snapshot.claim(originalName, newName);
+                        moves.add(new RenameJournal.Move(fileToRename.toPath(),
+                                                         fileToRename.toPath().resolveSibling(newName)));
+                        types.add(ext);
+                        log.debug("Final name: " + newName);
+                    }
 
-            if (newName.lastIndexOf(filter) != -1) {
-                newName = newName.replaceAll(filter, ReplacingConstants.SPACE);
+                } catch (final Exception logged) {
+                    log.error("There is a problem with file " + fileToRename.getName(), logged);
+                }
             }
-            newName = newName.trim();
         }
-        return newName;
-    }
 
-    private static String doReplacement(String stringToReplace, final String charToBeReplaced,
-            final String substituteChar) {
-        for (int i = 0; i < stringToReplace.length(); i++) {
-            final char c = stringToReplace.charAt(i);
-            if (charToBeReplaced.equals(String.valueOf(c))) {
-                stringToReplace = stringToReplace.substring(0, i) + substituteChar + stringToReplace.substring(i + 1);
+        // then journal and apply them as one batch, in the same order
+        final boolean[] applied = result.journal.apply(moves);
+        final Map<PostProcessor, List<FileDTO>> renamed = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            if (applied[i]) {
+                final File renamedFile = moves.get(i).to().toFile();
+                result.renamedFiles.put(renamedFile.getPath(), moves.get(i).from().toString());
+                renamed.computeIfAbsent(postProcessors.forExtension(types.get(i)), processor -> new ArrayList<>())
+                        .add(new FileDTO(renamedFile, types.get(i), contentDirectory));
+            } else {
+                snapshot.release(moves.get(i).from().getFileName().toString(),
+                                 moves.get(i).to().getFileName().toString());
             }
         }
-
-        return stringToReplace;
+        // run additional file-level operations, if any, a batch per post processor
+        renamed.forEach((postProcessor, files) -> {
+            try {
+                postProcessor.processFiles(files, result, snapshot);
+            } catch (final Exception logged) {
+                log.error("There is a problem post-processing files in " + contentDirectory.getPath(), logged);
+            }
+        });
+        return subDirectories;
     }
 
     /**
-     * Strips leading characters (numbers, punctuation) from the start of the name,
-     * unless the name starts with a configured exclusion.
+     * Computes the new name of a file from its name alone, or returns null when its type is not known or has no
+     * post processor.
      */
-    private String processNumbers(String newName) {
-        boolean allowed = true;
-        // check whether the start of the name may be touched
-        for (final String exclusion : this.exclusions.getExclusions()) {
-            if (newName.startsWith(exclusion.toLowerCase())) {
-                // the start of the name matches an exclusion, leave it untouched
-                allowed = false;
-            }
+    private String proposeName(final String originalName) {
+        final String[] nameSeparated = NameUtils.splitExtension(originalName.trim().toLowerCase());
+        try {
+            final PostProcessor postProcessor =
+                    postProcessors.forExtension(Extension.valueOf(nameSeparated[1].toUpperCase()));
+            return postProcessor != null ? this.proposeName(nameSeparated, postProcessor) : null;
+        } catch (final IllegalArgumentException ignored) {
+            return null;
         }
+    }
 
-        if (allowed) {
-            // strip characters until the name starts with a lowercase letter (ascii 97 to 122)
-            boolean repeat = true;
-            while (repeat) {
-                boolean keepStripping = true;
-                String stripped = newName;
-                int i = 0;
-                while (keepStripping && i < newName.length()) {
-                    final int ch = newName.charAt(i);
-                    if (ch == 32 || (ch >= 97 && ch <= 122)) {
-                        keepStripping = false;
-                    } else {
-                        stripped = newName.substring(i + 1);
-                    }
-                    i++;
-                }
-                newName = stripped.trim();
-                final int ch = newName.charAt(0);
-                if (ch >= 97 && ch <= 122) {
-                    repeat = false;
-                }
-            }
-        }
-        return newName;
+    private String proposeName(final String[] nameSeparated, final PostProcessor postProcessor) {
+        String newName = normalizer.normalizeBase(nameSeparated[0]);
+        newName = postProcessor.processFileName(newName).trim();
+        // assemble the final name, unescaped and title cased for a nicer look
+        return normalizer.finish(newName, nameSeparated[1]);
+    }
+
+    /**
+     * Groups the name correction operations; see {@link RenameRules}.
+     */
+    static String replaces(final String newName) {
+        return RenameRules.defaults().apply(newName);
     }
 
     /**
      * Result of a rename run.
+     * <p>
+     * Directories renamed concurrently write to the same result, so the maps are concurrent; they are sorted by path,
+     * which keeps the report in the same order however the directories were scheduled.
      */
     public class RenamingResult implements OperationResult {
 
@@ -216,12 +359,16 @@ public class Renamer implements FileOperation<RenamingResult> {
         private Map<String, String> renamedFiles;
         private Map<String, String> duplicatedFiles;
         private Directory currentDirectory;
+        // background work started for the run, e.g. tag writes; the run ends when it is done
+        private final transient Queue<CompletableFuture<?>> deferred = new ConcurrentLinkedQueue<>();
+        private transient RenameJournal.Run journal;
+        private transient CancellationToken cancellation = CancellationToken.NONE;
 
         RenamingResult(final Directory currentDirectory) {
             this.currentDirectory = currentDirectory;
 
-            this.renamedFiles = new HashMap<>();
-            this.duplicatedFiles = new HashMap<>();
+            this.renamedFiles = new ConcurrentSkipListMap<>();
+            this.duplicatedFiles = new ConcurrentSkipListMap<>();
         }
 
         Map<String, String> getRenamedFiles() {
@@ -235,6 +382,30 @@ public class Renamer implements FileOperation<RenamingResult> {
         Directory getCurrentDirectory() {
             return this.currentDirectory;
         }
+
+        /**
+         * Returns the journal every rename of the run must go through.
+         */
+        RenameJournal.Run getJournal() {
+            return this.journal;
+        }
+
+        /**
+         * Registers work that must finish before the run is reported; its failures are logged where they happen.
+         */
+        void defer(final CompletableFuture<?> work) {
+            this.deferred.add(work);
+        }
+
+        private void awaitDeferred() {
+            for (CompletableFuture<?> work = this.deferred.poll(); work != null; work = this.deferred.poll()) {
+                try {
+                    work.join();
+                } catch (final RuntimeException logged) {
+                    log.debug("Deferred rename work failed: {}", logged.getMessage());
+                }
+            }
+        }
     }
 
     public String getOperationName() {
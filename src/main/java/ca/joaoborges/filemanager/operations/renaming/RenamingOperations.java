@@ -14,17 +14,23 @@ public class RenamingOperations {
     @Autowired
     private ExclusionManagerService exclusions;
 
-    public String doReplaceAll(String stringToReplace, final String charToBeReplaced, final String substituteChar) {
-        for (int i = 0; i < stringToReplace.length(); i++) {
-            final char c = stringToReplace.charAt(i);
-            if (charToBeReplaced.equals(String.valueOf(c))) {
-                if (!this.exclusions.hasExclusionFor(NameUtils.getBlockBehindChar(stringToReplace, i), true)) {
-                    stringToReplace = stringToReplace.substring(0, i) + substituteChar
-                            + stringToReplace.substring(i + 1);
-                }
+    /**
+     * Replaces the character wherever the space-delimited word around it is not an exclusion.
+     * The name is edited in place, so a character right after a removed one is not examined.
+     */
+    public String doReplaceAll(final String stringToReplace, final String charToBeReplaced,
+                               final String substituteChar) {
+        if (stringToReplace.indexOf(charToBeReplaced.charAt(0)) < 0) {
+            return stringToReplace;
+        }
+        final StringBuilder name = new StringBuilder(stringToReplace);
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) == charToBeReplaced.charAt(0)
+                    && !this.exclusions.hasExclusionFor(NameUtils.getBlockBehindChar(name, i), true)) {
+                name.replace(i, i + 1, substituteChar);
             }
         }
-        return stringToReplace;
+        return name.toString();
     }
 
 }
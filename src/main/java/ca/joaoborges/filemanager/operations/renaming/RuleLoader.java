@@ -0,0 +1,122 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.thoughtworks.xstream.XStream;
+
+import ca.joaoborges.filemanager.model.util.Message;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.thoughtworks.xstream.XStream.NO_REFERENCES;
+
+/**
+ * Reads the renaming rule files and compiles them into a {@link RuleSet}.
+ * <p>
+ * Each file of the rules directory replaces its bundled counterpart: {@value #EXCLUSIONS} the exclusions.xml
+ * resources, {@value #STRINGS_TO_FILTER} and {@value #REGEXES_TO_FILTER} the catalogs of the same name. Without a
+ * rules directory, or for the files missing from it, the bundled rules are used.
+ */
+@Slf4j
+final class RuleLoader {
+
+    static final String EXCLUSIONS = "exclusions.xml";
+    static final String STRINGS_TO_FILTER = "StringsToFilter.properties";
+    static final String REGEXES_TO_FILTER = "RegexesToFilter.properties";
+    static final Set<String> FILES = Set.of(EXCLUSIONS, STRINGS_TO_FILTER, REGEXES_TO_FILTER);
+
+    // configured once; only the two exclusion bean types may be read
+    private static final XStream xStream = newXStream();
+
+    private RuleLoader() {
+    }
+
+    /**
+     * Loads and compiles the rules.
+     *
+     * @param rulesDir the directory holding the rule files, or null for the bundled rules only
+     * @throws UncheckedIOException when a rule file cannot be read
+     */
+    static RuleSet load(final Path rulesDir) {
+        try {
+            final RenameRules filters = new RenameRules(
+                    filterValues(rulesDir, STRINGS_TO_FILTER, Message.STRINGS_TO_FILTER),
+                    filterValues(rulesDir, REGEXES_TO_FILTER, Message.REGEXES_TO_FILTER));
+            return new RuleSet(filters, new ExclusionIndex(exclusions(rulesDir)));
+        } catch (final IOException wrapped) {
+            throw new UncheckedIOException("Could not read the renaming rules", wrapped);
+        }
+    }
+
+    private static List<String> exclusions(final Path rulesDir) throws IOException {
+        final List<String> loaded = new ArrayList<>();
+        final Path override = rulesDir != null ? rulesDir.resolve(EXCLUSIONS) : null;
+        if (override != null && Files.isRegularFile(override)) {
+            log.debug("Parsing: " + override);
+            try (InputStream input = Files.newInputStream(override)) {
+                addExclusions(input, loaded);
+            }
+            return loaded;
+        }
+        final Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources(EXCLUSIONS);
+        while (resources.hasMoreElements()) {
+            final URL exclusionFile = resources.nextElement();
+            log.debug("Parsing: " + exclusionFile.getFile());
+            try (InputStream input = exclusionFile.openStream()) {
+                addExclusions(input, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private static void addExclusions(final InputStream input, final List<String> loaded) {
+        final ExclusionsBean bean = (ExclusionsBean) xStream.fromXML(input);
+        if (bean.getExclusions() != null) {
+            for (final Exclusion exclusion : bean.getExclusions()) {
+                if (exclusion.getValue() != null && !exclusion.getValue().isBlank()) {
+                    loaded.add(exclusion.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the values of a filter file, in key order, as the catalogs are.
+     */
+    private static List<String> filterValues(final Path rulesDir, final String fileName, final String catalog)
+            throws IOException {
+        final Path override = rulesDir != null ? rulesDir.resolve(fileName) : null;
+        if (override == null || !Files.isRegularFile(override)) {
+            return new ArrayList<>(Message.getCatalog(catalog).values());
+        }
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(override, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        final TreeMap<String, String> sorted = new TreeMap<>();
+        properties.stringPropertyNames().forEach(key -> sorted.put(key, properties.getProperty(key)));
+        return new ArrayList<>(sorted.values());
+    }
+
+    private static XStream newXStream() {
+        final XStream stream = new XStream();
+        stream.allowTypes(new Class[] { ExclusionsBean.class, Exclusion.class });
+        stream.ignoreUnknownElements();
+        stream.setMode(NO_REFERENCES);
+        stream.processAnnotations(new Class[] { ExclusionsBean.class, Exclusion.class });
+        return stream;
+    }
+
+}
@@ -0,0 +1,51 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The renaming rules in force: the compiled name filters and the exclusion index.
+ * <p>
+ * A rule set is immutable and replaced as a whole when the rule files change (see {@link ExclusionManagerService}),
+ * so a rename keeps using the set it fetched while the next one sees the new rules; nothing waits on a reload.
+ * Until a set is installed, the rules bundled on the classpath are used.
+ */
+public final class RuleSet {
+
+    private static final AtomicReference<RuleSet> current = new AtomicReference<>();
+
+    private final RenameRules filters;
+    private final ExclusionIndex exclusions;
+
+    public RuleSet(final RenameRules filters, final ExclusionIndex exclusions) {
+        this.filters = filters;
+        this.exclusions = exclusions;
+    }
+
+    /**
+     * Returns the rule set in force, loading the bundled rules on first use.
+     */
+    public static RuleSet current() {
+        final RuleSet rules = current.get();
+        if (rules != null) {
+            return rules;
+        }
+        current.compareAndSet(null, RuleLoader.load(null));
+        return current.get();
+    }
+
+    /**
+     * Replaces the rule set in force.
+     */
+    static void install(final RuleSet rules) {
+        current.set(rules);
+    }
+
+    public RenameRules getFilters() {
+        return filters;
+    }
+
+    public ExclusionIndex getExclusions() {
+        return exclusions;
+    }
+
+}
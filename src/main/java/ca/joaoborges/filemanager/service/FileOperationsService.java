@@ -9,13 +9,19 @@ import java.util.concurrent.CompletableFuture;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import ca.joaoborges.filemanager.dto.BulkRenameRequest;
 import ca.joaoborges.filemanager.dto.DuplicateRequest;
 import ca.joaoborges.filemanager.dto.ExtractRequest;
 import ca.joaoborges.filemanager.dto.OrganizeRequest;
 import ca.joaoborges.filemanager.dto.PhotoOrganizeRequest;
+import ca.joaoborges.filemanager.dto.PhotoRelayoutRequest;
 import ca.joaoborges.filemanager.dto.RenameRequest;
 import ca.joaoborges.filemanager.model.Directory;
 import ca.joaoborges.filemanager.model.ExtensionFilter;
+import ca.joaoborges.filemanager.operations.bulkRename.BulkRenameResult;
+import ca.joaoborges.filemanager.operations.bulkRename.BulkRenamer;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.OperationConstants;
 import ca.joaoborges.filemanager.operations.duplicateFinder.DuplicateFinder;
 import ca.joaoborges.filemanager.operations.duplicateFinder.DuplicateFinderResult;
 import ca.joaoborges.filemanager.operations.extraction.ExtractionResult;
@@ -24,6 +30,10 @@ import ca.joaoborges.filemanager.operations.organization.OrganizationResult;
 import ca.joaoborges.filemanager.operations.organization.Organizer;
 import ca.joaoborges.filemanager.operations.photoOrganization.PhotoOrganizer;
 import ca.joaoborges.filemanager.operations.photoOrganization.PhotoOrganizerResult;
+import ca.joaoborges.filemanager.operations.photoOrganization.PhotoRelayout;
+import ca.joaoborges.filemanager.operations.photoOrganization.PhotoRelayoutResult;
+import ca.joaoborges.filemanager.operations.renaming.RenamePreview;
+import ca.joaoborges.filemanager.operations.renaming.RenamePreviews;
 import ca.joaoborges.filemanager.operations.renaming.Renamer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -54,6 +64,12 @@ public class FileOperationsService {
 
     private final DuplicateFinder duplicateFinder;
 
+    private final PhotoRelayout photoRelayout;
+
+    private final RenamePreviews renamePreviews;
+
+    private final BulkRenamer bulkRenamer;
+
     /**
      * Execute file renaming operation
      *
@@ -61,15 +77,52 @@ public class FileOperationsService {
      * @return Renaming operation result
      */
     public Object executeRename(final RenameRequest request) {
+        return executeRename(request, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #executeRename(RenameRequest)}, stopped once the token is cancelled
+     */
+    public Object executeRename(final RenameRequest request, final CancellationToken cancellation) {
         log.info("Executing rename operation for directory: {}", request.getSourceDirectory());
 
         final Map<String, Object> params = new HashMap<>();
+        params.put(OperationConstants.CANCELLATION, cancellation);
         params.put(Directory.class.getName(), new Directory(request.getSourceDirectory()));
         params.put(INCLUDE_SUB_DIRECTORIES, request.isIncludeSubDirectories());
 
         return renamer.execute(params);
     }
 
+    /**
+     * Start computing the names a rename would give, without renaming
+     *
+     * Returns at once; the preview is filled in the background and kept so that it can be read page by page as it
+     * grows; see {@link #getRenamePreview(String)}.
+     *
+     * @param request Rename request parameters
+     * @return Rename preview, possibly still empty
+     */
+    public RenamePreview previewRename(final RenameRequest request) {
+        log.info("Previewing rename for directory: {}", request.getSourceDirectory());
+
+        final Map<String, Object> params = new HashMap<>();
+        params.put(Directory.class.getName(), new Directory(request.getSourceDirectory()));
+        params.put(INCLUDE_SUB_DIRECTORIES, request.isIncludeSubDirectories());
+
+        return renamePreviews.put(renamer.preview(params));
+    }
+
+    /**
+     * Get a rename preview computed earlier
+     *
+     * @param previewId Id returned with the preview
+     * @return Rename preview, or null when unknown or expired
+     */
+    public RenamePreview getRenamePreview(final String previewId) {
+        return renamePreviews.get(previewId);
+    }
+
     /**
      * Execute file organization operation
      *
@@ -79,13 +132,27 @@ public class FileOperationsService {
      * @return Organization operation result
      */
     public OrganizationResult executeOrganize(final OrganizeRequest request) {
+        return executeOrganize(request, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #executeOrganize(OrganizeRequest)}, stopped once the token is cancelled
+     */
+    public OrganizationResult executeOrganize(final OrganizeRequest request, final CancellationToken cancellation) {
         log.info("Executing organize operation: {} -> {}",
             request.getSourceDirectory(), request.getDestinationDirectory());
 
         final Map<String, Object> params = new HashMap<>();
+        params.put(OperationConstants.CANCELLATION, cancellation);
         params.put("BASE_DIR", new Directory(request.getSourceDirectory()));
         params.put("DEST_DIR", new Directory(request.getDestinationDirectory()));
         params.put(ExtensionFilter.class.getName(), ExtensionFilter.allAcceptedFilter());
+        if (request.getStrategy() != null && !request.getStrategy().isBlank()) {
+            params.put(Organizer.STRATEGY, request.getStrategy());
+        }
+        if (request.getWorkers() != null) {
+            params.put(OperationConstants.MOVE_WORKERS, request.getWorkers());
+        }
 
         return organizer.execute(params);
     }
@@ -99,13 +166,24 @@ public class FileOperationsService {
      * @return Extraction operation result
      */
     public ExtractionResult executeExtract(final ExtractRequest request) {
+        return executeExtract(request, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #executeExtract(ExtractRequest)}, stopped once the token is cancelled
+     */
+    public ExtractionResult executeExtract(final ExtractRequest request, final CancellationToken cancellation) {
         log.info("Executing extract operation: {} -> {}",
             request.getSourceDirectory(), request.getDestinationDirectory());
 
         final Map<String, Object> params = new HashMap<>();
+        params.put(OperationConstants.CANCELLATION, cancellation);
         params.put("BASE_DIR", new Directory(request.getSourceDirectory()));
         params.put("DEST_DIR", new Directory(request.getDestinationDirectory()));
         params.put(ExtensionFilter.class.getName(), ExtensionFilter.allAcceptedFilter());
+        if (request.getWorkers() != null) {
+            params.put(OperationConstants.MOVE_WORKERS, request.getWorkers());
+        }
 
         return extractor.execute(params);
     }
@@ -119,6 +197,14 @@ public class FileOperationsService {
      * @return Photo organization operation result
      */
     public PhotoOrganizerResult executePhotoOrganization(final PhotoOrganizeRequest request) {
+        return executePhotoOrganization(request, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #executePhotoOrganization(PhotoOrganizeRequest)}, stopped once the token is cancelled
+     */
+    public PhotoOrganizerResult executePhotoOrganization(final PhotoOrganizeRequest request,
+            final CancellationToken cancellation) {
         log.info("Executing photo organization: {} -> {}",
             request.getSourceDirectory(), request.getDestinationDirectory());
 
@@ -130,13 +216,80 @@ public class FileOperationsService {
         final ExtensionFilter photoFilter = new ExtensionFilter(photoAndVideoExtensions);
 
         final Map<String, Object> params = new HashMap<>();
+        params.put(OperationConstants.CANCELLATION, cancellation);
         params.put("BASE_DIR", new Directory(request.getSourceDirectory()));
         params.put("DEST_DIR", new Directory(request.getDestinationDirectory()));
         params.put(ExtensionFilter.class.getName(), photoFilter);
+        if (request.getFolderLayout() != null && !request.getFolderLayout().isBlank()) {
+            params.put(PhotoOrganizer.FOLDER_LAYOUT, request.getFolderLayout());
+        }
+        if (request.getWorkers() != null) {
+            params.put(OperationConstants.MOVE_WORKERS, request.getWorkers());
+        }
 
         return photoOrganizer.execute(params);
     }
 
+    /**
+     * Execute photo re-layout operation
+     *
+     * Moves the year/month folders of an organized photo tree to a new folder layout.
+     *
+     * @param request Photo re-layout request parameters
+     * @return Photo re-layout operation result
+     */
+    public PhotoRelayoutResult executePhotoRelayout(final PhotoRelayoutRequest request) {
+        return executePhotoRelayout(request, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #executePhotoRelayout(PhotoRelayoutRequest)}, stopped once the token is cancelled
+     */
+    public PhotoRelayoutResult executePhotoRelayout(final PhotoRelayoutRequest request,
+            final CancellationToken cancellation) {
+        log.info("Executing photo re-layout of {} to {}", request.getDirectory(), request.getToLayout());
+
+        final Map<String, Object> params = new HashMap<>();
+        params.put(OperationConstants.CANCELLATION, cancellation);
+        params.put(Directory.class.getName(), new Directory(request.getDirectory()));
+        params.put(PhotoRelayout.TO_LAYOUT, request.getToLayout());
+        params.put(PhotoRelayout.DRY_RUN, request.isDryRun());
+        if (request.getFromLayout() != null && !request.getFromLayout().isBlank()) {
+            params.put(PhotoRelayout.FROM_LAYOUT, request.getFromLayout());
+        }
+
+        return photoRelayout.execute(params);
+    }
+
+    /**
+     * Execute bulk rename operation
+     *
+     * Renames the files whose name matches the pattern, replacing the matches.
+     *
+     * @param request Bulk rename request parameters
+     * @return Bulk rename operation result
+     */
+    public BulkRenameResult executeBulkRename(final BulkRenameRequest request) {
+        return executeBulkRename(request, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #executeBulkRename(BulkRenameRequest)}, stopped once the token is cancelled
+     */
+    public BulkRenameResult executeBulkRename(final BulkRenameRequest request, final CancellationToken cancellation) {
+        log.info("Executing bulk rename of {} with pattern {}", request.getDirectory(), request.getPattern());
+
+        final Map<String, Object> params = new HashMap<>();
+        params.put(OperationConstants.CANCELLATION, cancellation);
+        params.put(Directory.class.getName(), new Directory(request.getDirectory()));
+        params.put(BulkRenamer.PATTERN, request.getPattern());
+        params.put(BulkRenamer.REPLACEMENT, request.getReplacement());
+        params.put(BulkRenamer.INCLUDE_SUB_DIRECTORIES, request.isIncludeSubDirectories());
+        params.put(BulkRenamer.DRY_RUN, request.isDryRun());
+
+        return bulkRenamer.execute(params);
+    }
+
     /**
      * Execute duplicate file finder operation
      *
@@ -146,9 +299,18 @@ public class FileOperationsService {
      * @return Duplicate finder operation result
      */
     public DuplicateFinderResult executeFindDuplicates(final DuplicateRequest request) {
+        return executeFindDuplicates(request, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #executeFindDuplicates(DuplicateRequest)}, stopped once the token is cancelled
+     */
+    public DuplicateFinderResult executeFindDuplicates(final DuplicateRequest request,
+            final CancellationToken cancellation) {
         log.info("Executing duplicate finder for directory: {}", request.getDirectory());
 
         final Map<String, Object> params = new HashMap<>();
+        params.put(OperationConstants.CANCELLATION, cancellation);
         params.put(Directory.class.getName(), new Directory(request.getDirectory()));
 
         return duplicateFinder.execute(params);
@@ -162,12 +324,14 @@ public class FileOperationsService {
      * Execute file renaming operation asynchronously
      *
      * @param request Rename request parameters
+     * @param cancellation Stops the operation at the next file once cancelled
      * @return CompletableFuture with operation result
      */
     @Async("taskExecutor")
-    public CompletableFuture<Object> executeRenameAsync(final RenameRequest request) {
+    public CompletableFuture<Object> executeRenameAsync(final RenameRequest request,
+            final CancellationToken cancellation) {
         log.info("Executing async rename operation for directory: {}", request.getSourceDirectory());
-        final Object result = executeRename(request);
+        final Object result = executeRename(request, cancellation);
         return CompletableFuture.completedFuture(result);
     }
 
@@ -175,13 +339,15 @@ public class FileOperationsService {
      * Execute file organization operation asynchronously
      *
      * @param request Organization request parameters
+     * @param cancellation Stops the operation at the next file once cancelled
      * @return CompletableFuture with operation result
      */
     @Async("taskExecutor")
-    public CompletableFuture<OrganizationResult> executeOrganizeAsync(final OrganizeRequest request) {
+    public CompletableFuture<OrganizationResult> executeOrganizeAsync(final OrganizeRequest request,
+            final CancellationToken cancellation) {
         log.info("Executing async organize operation: {} -> {}",
             request.getSourceDirectory(), request.getDestinationDirectory());
-        final OrganizationResult result = executeOrganize(request);
+        final OrganizationResult result = executeOrganize(request, cancellation);
         return CompletableFuture.completedFuture(result);
     }
 
@@ -189,13 +355,15 @@ public class FileOperationsService {
      * Execute file extraction operation asynchronously
      *
      * @param request Extraction request parameters
+     * @param cancellation Stops the operation at the next file once cancelled
      * @return CompletableFuture with operation result
      */
     @Async("taskExecutor")
-    public CompletableFuture<ExtractionResult> executeExtractAsync(final ExtractRequest request) {
+    public CompletableFuture<ExtractionResult> executeExtractAsync(final ExtractRequest request,
+            final CancellationToken cancellation) {
         log.info("Executing async extract operation: {} -> {}",
             request.getSourceDirectory(), request.getDestinationDirectory());
-        final ExtractionResult result = executeExtract(request);
+        final ExtractionResult result = executeExtract(request, cancellation);
         return CompletableFuture.completedFuture(result);
     }
 
@@ -203,14 +371,46 @@ public class FileOperationsService {
      * Execute photo organization operation asynchronously
      *
      * @param request Photo organization request parameters
+     * @param cancellation Stops the operation at the next file once cancelled
      * @return CompletableFuture with operation result
      */
     @Async("taskExecutor")
     public CompletableFuture<PhotoOrganizerResult> executePhotoOrganizationAsync(
-            final PhotoOrganizeRequest request) {
+            final PhotoOrganizeRequest request,
+            final CancellationToken cancellation) {
         log.info("Executing async photo organization: {} -> {}",
             request.getSourceDirectory(), request.getDestinationDirectory());
-        final PhotoOrganizerResult result = executePhotoOrganization(request);
+        final PhotoOrganizerResult result = executePhotoOrganization(request, cancellation);
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * Execute photo re-layout operation asynchronously
+     *
+     * @param request Photo re-layout request parameters
+     * @param cancellation Stops the operation at the next file once cancelled
+     * @return CompletableFuture with operation result
+     */
+    @Async("taskExecutor")
+    public CompletableFuture<PhotoRelayoutResult> executePhotoRelayoutAsync(final PhotoRelayoutRequest request,
+            final CancellationToken cancellation) {
+        log.info("Executing async photo re-layout of {}", request.getDirectory());
+        final PhotoRelayoutResult result = executePhotoRelayout(request, cancellation);
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * Execute bulk rename operation asynchronously
+     *
+     * @param request Bulk rename request parameters
+     * @param cancellation Stops the operation at the next file once cancelled
+     * @return CompletableFuture with operation result
+     */
+    @Async("taskExecutor")
+    public CompletableFuture<BulkRenameResult> executeBulkRenameAsync(final BulkRenameRequest request,
+            final CancellationToken cancellation) {
+        log.info("Executing async bulk rename of {}", request.getDirectory());
+        final BulkRenameResult result = executeBulkRename(request, cancellation);
         return CompletableFuture.completedFuture(result);
     }
 
@@ -218,13 +418,15 @@ public class FileOperationsService {
      * Execute duplicate file finder operation asynchronously
      *
      * @param request Duplicate finder request parameters
+     * @param cancellation Stops the operation at the next file once cancelled
      * @return CompletableFuture with operation result
      */
     @Async("taskExecutor")
     public CompletableFuture<DuplicateFinderResult> executeFindDuplicatesAsync(
-            final DuplicateRequest request) {
+            final DuplicateRequest request,
+            final CancellationToken cancellation) {
         log.info("Executing async duplicate finder for directory: {}", request.getDirectory());
-        final DuplicateFinderResult result = executeFindDuplicates(request);
+        final DuplicateFinderResult result = executeFindDuplicates(request, cancellation);
         return CompletableFuture.completedFuture(result);
     }
 
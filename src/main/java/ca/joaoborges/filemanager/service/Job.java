@@ -0,0 +1,86 @@
+package ca.joaoborges.filemanager.service;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import lombok.Getter;
+
+/**
+ * A file operation submitted to the {@link JobService}.
+ * <p>
+ * The job id doubles as the progress operation id, so clients can subscribe to /topic/progress/{jobId}.
+ * The result is only exposed once the job succeeded; see {@link JobService#getResult(String)}. A job is cancelled
+ * through its token, either on request or once its deadline passed; see {@link JobService#cancel(String)}.
+ */
+@Getter
+public class Job {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final String type;
+    private final Instant submittedAt = Instant.now();
+    private final Instant deadline;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    @JsonIgnore
+    private volatile Object result;
+
+    @JsonIgnore
+    private final CancellationToken cancellation = new CancellationToken();
+
+    @JsonIgnore
+    private final Function<CancellationToken, CompletableFuture<?>> start;
+
+    Job(final String id, final String type, final Instant deadline,
+        final Function<CancellationToken, CompletableFuture<?>> start) {
+        this.id = id;
+        this.type = type;
+        this.deadline = deadline;
+        this.start = start;
+    }
+
+    /**
+     * Starts the operation with the job's token, bounded by its deadline if any.
+     */
+    CompletableFuture<?> start() {
+        return start.apply(deadline != null ? cancellation.withDeadline(deadline) : cancellation);
+    }
+
+    void started() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void succeeded(final Object value) {
+        result = value;
+        finishedAt = Instant.now();
+        status = Status.SUCCEEDED;
+    }
+
+    void failed(final String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    void cancelled(final String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = Status.CANCELLED;
+    }
+
+}
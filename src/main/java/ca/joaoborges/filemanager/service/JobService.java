@@ -0,0 +1,196 @@
+package ca.joaoborges.filemanager.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import ca.joaoborges.filemanager.exception.OperationCancelledException;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs file operations as jobs: a submission returns at once with a job id, which clients then poll, or follow on
+ * /topic/progress/{jobId}, until the result can be fetched.
+ * <p>
+ * Each job type has its own lane, with at most {@code max-running-per-type} jobs running and
+ * {@code max-queued-per-type} waiting; further submissions are rejected. A job is started by calling one of the
+ * {@code executeXAsync} methods of {@link FileOperationsService}, so the work itself runs on the
+ * {@code taskExecutor} of {@code AsyncConfig}; the lanes only decide when. A queued job can be cancelled outright;
+ * a running one is asked to stop through its {@link CancellationToken} and ends as {@link Job.Status#CANCELLED}
+ * at the next file. Finished jobs are forgotten after the retention period.
+ */
+@Service
+@Slf4j
+public class JobService {
+
+    private final ObjectProvider<ProgressService> progress;
+    private final int maxRunning;
+    private final int maxQueued;
+    private final Duration retention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public JobService(final ObjectProvider<ProgressService> progress,
+                      @Value("${filemanager.jobs.max-running-per-type:2}") final int maxRunning,
+                      @Value("${filemanager.jobs.max-queued-per-type:20}") final int maxQueued,
+                      @Value("${filemanager.jobs.retention-minutes:60}") final long retentionMinutes) {
+        this.progress = progress;
+        this.maxRunning = Math.max(1, maxRunning);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    /**
+     * Queues a job of the given type; it starts as soon as its lane has a free slot.
+     *
+     * @param type    the job type, e.g. "rename"
+     * @param timeout how long the job may take from its submission, or null for no deadline
+     * @param start   starts the operation with the job's token and returns its future; called once, when the job
+     *                leaves the queue
+     * @return the queued (or already running) job
+     * @throws RejectedExecutionException when the lane's queue is full
+     */
+    public Job submit(final String type, final Duration timeout,
+                      final Function<CancellationToken, CompletableFuture<?>> start) {
+        purgeExpired();
+        final Job job = new Job(UUID.randomUUID().toString(), type,
+                                timeout != null ? Instant.now().plus(timeout) : null, start);
+        final Lane lane = lanes.computeIfAbsent(type, ignored -> new Lane());
+        synchronized (lane) {
+            if (lane.queued.size() >= maxQueued && lane.running >= maxRunning) {
+                throw new RejectedExecutionException(
+                        "Too many " + type + " jobs: " + lane.running + " running, " + lane.queued.size() + " queued");
+            }
+            lane.queued.add(job);
+            jobs.put(job.getId(), job);
+        }
+        log.info("Job {} ({}) queued", job.getId(), type);
+        progress.ifAvailable(service -> service.sendProgress(job.getId(), 0, "Queued"));
+        startQueued(lane);
+        return job;
+    }
+
+    /**
+     * Cancels the job: a queued job is dropped from its lane, a running one stops at its next file.
+     *
+     * @return the job, or null when unknown or expired
+     */
+    public Job cancel(final String jobId) {
+        final Job job = jobs.get(jobId);
+        if (job == null || job.getStatus().isFinished()) {
+            return job;
+        }
+        final Lane lane = lanes.get(job.getType());
+        final boolean dequeued;
+        synchronized (lane) {
+            dequeued = lane.queued.remove(job);
+        }
+        if (dequeued) {
+            job.cancelled("Cancelled before it started");
+            log.info("Job {} ({}) cancelled while queued", job.getId(), job.getType());
+            progress.ifAvailable(service -> service.sendError(job.getId(), job.getError()));
+        } else {
+            job.getCancellation().cancel("Cancelled by request");
+            log.info("Job {} ({}) asked to stop", job.getId(), job.getType());
+        }
+        return job;
+    }
+
+    /**
+     * Returns the job, or null when unknown or expired.
+     */
+    public Job getJob(final String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Returns the known jobs, most recently submitted first.
+     */
+    public List<Job> getJobs() {
+        purgeExpired();
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(Job::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Returns the result of a succeeded job, or null when the job is unknown or has not succeeded.
+     */
+    public Object getResult(final String jobId) {
+        final Job job = jobs.get(jobId);
+        return job != null && job.getStatus() == Job.Status.SUCCEEDED ? job.getResult() : null;
+    }
+
+    private void startQueued(final Lane lane) {
+        while (true) {
+            final Job job;
+            synchronized (lane) {
+                if (lane.running >= maxRunning || lane.queued.isEmpty()) {
+                    return;
+                }
+                job = lane.queued.poll();
+                lane.running++;
+            }
+            job.started();
+            log.info("Job {} ({}) started", job.getId(), job.getType());
+            progress.ifAvailable(service -> service.sendProgress(job.getId(), 0, "Running"));
+            CompletableFuture<?> future;
+            try {
+                future = job.start();
+            } catch (final RuntimeException failure) {
+                // e.g. the task executor rejected the work
+                future = CompletableFuture.failedFuture(failure);
+            }
+            future.whenComplete((result, failure) -> finish(lane, job, result, failure));
+        }
+    }
+
+    private void finish(final Lane lane, final Job job, final Object result, final Throwable failure) {
+        final Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause == null) {
+            job.succeeded(result);
+            log.info("Job {} ({}) succeeded", job.getId(), job.getType());
+            // the result can be large, so it is fetched through the job rather than pushed
+            progress.ifAvailable(service -> service.sendCompletion(job.getId(), null));
+        } else if (cause instanceof OperationCancelledException) {
+            job.cancelled(cause.getMessage());
+            log.info("Job {} ({}) cancelled: {}", job.getId(), job.getType(), cause.getMessage());
+            progress.ifAvailable(service -> service.sendError(job.getId(), job.getError()));
+        } else {
+            job.failed(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+            log.error("Job {} ({}) failed", job.getId(), job.getType(), cause);
+            progress.ifAvailable(service -> service.sendError(job.getId(), job.getError()));
+        }
+        synchronized (lane) {
+            lane.running--;
+        }
+        startQueued(lane);
+    }
+
+    private void purgeExpired() {
+        final Instant oldest = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt().isBefore(oldest));
+    }
+
+    private static final class Lane {
+
+        private final Deque<Job> queued = new ArrayDeque<>();
+        private int running;
+    }
+
+}
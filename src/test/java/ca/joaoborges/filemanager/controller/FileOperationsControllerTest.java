@@ -1,11 +1,15 @@
 package ca.joaoborges.filemanager.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -21,6 +25,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import ca.joaoborges.filemanager.dto.OrganizeRequest;
 import ca.joaoborges.filemanager.dto.RenameRequest;
+import ca.joaoborges.filemanager.operations.renaming.RenamePreview;
 import ca.joaoborges.filemanager.service.FileOperationsService;
 
 /**
@@ -61,6 +66,34 @@ class FileOperationsControllerTest {
             .andExpect(jsonPath("$.message").exists());
     }
 
+    @Test
+    void testRenamePreviewPage_UnknownId() throws Exception {
+        // Given
+        when(fileOperationsService.getRenamePreview(any())).thenReturn(null);
+
+        // When & Then
+        mockMvc.perform(get("/api/operations/rename-preview/unknown"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testRenamePreviewPage_InProgress() throws Exception {
+        // Given
+        final RenamePreview preview = mock(RenamePreview.class);
+        when(preview.getPreviewId()).thenReturn("p1");
+        when(preview.isComplete()).thenReturn(false);
+        when(preview.page(0, 500)).thenReturn(List.of());
+        when(fileOperationsService.getRenamePreview("p1")).thenReturn(preview);
+
+        // When & Then
+        mockMvc.perform(get("/api/operations/rename-preview/p1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.complete").value(false))
+            .andExpect(jsonPath("$.hasMore").value(true))
+            .andExpect(jsonPath("$.total").value(0));
+    }
+
     @Test
     void testRenameFiles_ValidationFailure_EmptyDirectory() throws Exception {
         // Given
@@ -0,0 +1,49 @@
+package ca.joaoborges.filemanager.model.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for Message
+ */
+class MessageTest {
+
+    @Test
+    void testGetMessage_readsBundledCatalog() {
+        // When
+        final String message = Message.getMessage(Message.EXTENSION_GROUPS, "0");
+
+        // Then
+        assertEquals("MP3 audio (mp3)", message);
+    }
+
+    @Test
+    void testGetMessage_missingIdOrCatalog() {
+        // When / Then
+        assertTrue(Message.getMessage(Message.EXTENSION_GROUPS, "nope").startsWith("Message not found."));
+        assertNull(Message.getMessageOrNull(Message.PREFIX + "NoSuchCatalog", "0"));
+    }
+
+    @Test
+    void testReload_swapsSnapshot() {
+        // Given
+        final Map<String, String> before = Message.getCatalog(Message.EXTENSION_GROUPS);
+        assertSame(before, Message.getCatalog(Message.EXTENSION_GROUPS));
+
+        // When
+        Message.reload();
+        final Map<String, String> after = Message.getCatalog(Message.EXTENSION_GROUPS);
+
+        // Then
+        assertNotSame(before, after);
+        assertEquals(before, after);
+    }
+
+}
@@ -0,0 +1,85 @@
+package ca.joaoborges.filemanager.operations.bulkRename;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.operations.common.ExecutionMode;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
+import ca.joaoborges.filemanager.operations.renaming.RenameJournal;
+
+/**
+ * Unit tests for BulkRenamer
+ */
+class BulkRenamerTest {
+
+    @TempDir
+    Path root;
+
+    @TempDir
+    Path journalDir;
+
+    private final BulkRenamer bulkRenamer = new BulkRenamer();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(bulkRenamer, "journal",
+                new RenameJournal(journalDir.toString(), RenameJournal.Recovery.ROLLBACK));
+        ReflectionTestUtils.setField(bulkRenamer, "defaultWorkers", 4);
+        ReflectionTestUtils.setField(bulkRenamer, "workerThreads", new WorkerThreads(ExecutionMode.VIRTUAL, 2, 8));
+        ReflectionTestUtils.setField(bulkRenamer, "ioScheduler", new IoScheduler(50, 2000, 8));
+        for (int folder = 0; folder < 10; folder++) {
+            final Path album = Files.createDirectories(root.resolve("album" + folder));
+            Files.createFile(album.resolve("IMG_1.HEIC.jpg"));
+            Files.createFile(album.resolve("IMG_2.jpg"));
+        }
+        Files.createFile(root.resolve("album0").resolve("IMG_1.jpg"));
+    }
+
+    @Test
+    void testExecute_stripsMatchesAcrossTree() {
+        // When
+        final BulkRenameResult result = bulkRenamer.execute(params(false));
+
+        // Then
+        assertEquals(9, result.getRenamedFiles().size());
+        assertEquals(1, result.getSkippedFiles().size());
+        assertTrue(Files.exists(root.resolve("album5").resolve("IMG_1.jpg")));
+        assertTrue(Files.exists(root.resolve("album0").resolve("IMG_1.HEIC.jpg")));
+    }
+
+    @Test
+    void testExecute_dryRunLeavesFilesAlone() {
+        // When
+        final BulkRenameResult result = bulkRenamer.execute(params(true));
+
+        // Then
+        assertEquals(9, result.getRenamedFiles().size());
+        assertTrue(result.isDryRun());
+        assertFalse(Files.exists(root.resolve("album5").resolve("IMG_1.jpg")));
+    }
+
+    private Map<String, Object> params(final boolean dryRun) {
+        final Map<String, Object> params = new HashMap<>();
+        params.put(Directory.class.getName(), new Directory(root.toString()));
+        params.put(BulkRenamer.PATTERN, "\\.HEIC");
+        params.put(BulkRenamer.REPLACEMENT, "");
+        params.put(BulkRenamer.INCLUDE_SUB_DIRECTORIES, true);
+        params.put(BulkRenamer.DRY_RUN, dryRun);
+        return params;
+    }
+
+}
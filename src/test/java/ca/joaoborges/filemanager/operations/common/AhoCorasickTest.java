@@ -0,0 +1,39 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for AhoCorasick
+ */
+class AhoCorasickTest {
+
+    private final AhoCorasick matcher = new AhoCorasick(List.of("he", "she", "hers", "T-Pain"));
+
+    @Test
+    void testContainsAny_findsPatternsThroughFailureLinks() {
+        assertTrue(matcher.containsAny("ushers"));
+        assertTrue(matcher.containsAny("feat. t-pain"));
+        assertFalse(matcher.containsAny("hx sx"));
+    }
+
+    @Test
+    void testPrefixAndExact_areCaseInsensitive() {
+        assertTrue(matcher.matchesPrefixOf("HERSELF"));
+        assertFalse(matcher.matchesPrefixOf("ushers"));
+        assertTrue(matcher.matchesExactly("t-pain"));
+        assertFalse(matcher.matchesExactly("t-pai"));
+    }
+
+    @Test
+    void testReplaceAll_keepsUnmatchedText() {
+        assertEquals("u_rs _", matcher.replaceAll("ushers he", "_"));
+        assertEquals("nothing", matcher.replaceAll("nothing", "_"));
+    }
+
+}
@@ -0,0 +1,92 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import ca.joaoborges.filemanager.operations.common.IoScheduler.IoClass;
+import ca.joaoborges.filemanager.operations.common.IoScheduler.QueueingDelay;
+
+/**
+ * Unit tests for IoScheduler
+ */
+class IoSchedulerTest {
+
+    @Test
+    void testBulkWork_waitsForPendingInteractiveRequests() throws Exception {
+        // Given
+        final IoScheduler scheduler = new IoScheduler(50, 10_000, 8);
+        final IoScheduler.Ticket ticket = scheduler.interactive();
+
+        // When
+        final CompletableFuture<Void> bulk = CompletableFuture.runAsync(scheduler::yieldToInteractive);
+        Thread.sleep(100);
+        final boolean doneWhileInteractive = bulk.isDone();
+        ticket.close();
+        bulk.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(doneWhileInteractive);
+        final QueueingDelay bulkDelay = scheduler.getStats().get(IoClass.BULK);
+        assertEquals(1, bulkDelay.count());
+        assertTrue(bulkDelay.maxMs() >= 100);
+        assertEquals(1, scheduler.getStats().get(IoClass.INTERACTIVE).count());
+    }
+
+    @Test
+    void testBulkWork_resumesAfterItsTargetUnderSteadyInteractiveLoad() {
+        // Given
+        final IoScheduler scheduler = new IoScheduler(50, 100, 8);
+
+        // When
+        try (IoScheduler.Ticket ticket = scheduler.interactive()) {
+            scheduler.yieldToInteractive();
+        }
+
+        // Then
+        final QueueingDelay bulkDelay = scheduler.getStats().get(IoClass.BULK);
+        assertEquals(1, bulkDelay.overTarget());
+        assertEquals(100, bulkDelay.targetMs());
+    }
+
+    @Test
+    void testBulkWork_withoutInteractiveLoadIsNotASample() {
+        // Given
+        final IoScheduler scheduler = new IoScheduler(50, 2000, 8);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            scheduler.yieldToInteractive();
+        }
+
+        // Then
+        assertEquals(0, scheduler.getStats().get(IoClass.BULK).count());
+    }
+
+    @Test
+    void testTicketClosedTwice_releasesItsSlotOnce() throws Exception {
+        // Given
+        final IoScheduler scheduler = new IoScheduler(50, 10_000, 1);
+        final IoScheduler.Ticket first = scheduler.interactive();
+
+        // When
+        first.close();
+        first.close();
+        final IoScheduler.Ticket second = scheduler.interactive();
+        final CompletableFuture<IoScheduler.Ticket> third = CompletableFuture.supplyAsync(scheduler::interactive);
+        Thread.sleep(100);
+        final boolean thirdWaitedForTheOnlySlot = !third.isDone();
+        second.close();
+        third.get(5, TimeUnit.SECONDS).close();
+
+        // Then
+        assertTrue(thirdWaitedForTheOnlySlot);
+        assertEquals(3, scheduler.getStats().get(IoClass.INTERACTIVE).count());
+    }
+
+}
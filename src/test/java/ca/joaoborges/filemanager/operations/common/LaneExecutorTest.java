@@ -0,0 +1,82 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import ca.joaoborges.filemanager.exception.FileManagerException;
+
+/**
+ * Unit tests for LaneExecutor
+ */
+class LaneExecutorTest {
+
+    @Test
+    void testTasksWithSameKey_runInSubmissionOrder() {
+        // Given
+        final List<Integer> seen = new ArrayList<>();
+        final AtomicInteger total = new AtomicInteger();
+
+        // When
+        try (LaneExecutor lanes = new LaneExecutor("test", 4)) {
+            for (int i = 0; i < 10_000; i++) {
+                final int value = i;
+                lanes.submit("same-folder", () -> seen.add(value));
+                lanes.submit("other-" + i, total::incrementAndGet);
+            }
+        }
+
+        // Then
+        assertEquals(10_000, seen.size());
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(i, seen.get(i));
+        }
+        assertEquals(10_000, total.get());
+    }
+
+    @Test
+    void testFailure_isRethrownOnClose() {
+        // Given
+        final LaneExecutor lanes = new LaneExecutor("test", 2);
+        lanes.submit("a", () -> {
+            throw new FileManagerException("boom");
+        });
+
+        // When / Then
+        final FileManagerException thrown = assertThrows(FileManagerException.class, lanes::close);
+        assertEquals("boom", thrown.getMessage());
+    }
+
+    @Test
+    void testFailure_surfacesOnceThroughTryWithResources() {
+        // Given
+        final CountDownLatch failed = new CountDownLatch(1);
+
+        // When
+        final FileManagerException thrown = assertThrows(FileManagerException.class, () -> {
+            try (LaneExecutor lanes = new LaneExecutor("test", 2)) {
+                lanes.submit("a", () -> {
+                    failed.countDown();
+                    throw new FileManagerException("boom");
+                });
+                failed.await();
+                while (true) {
+                    // the failure is recorded right after the task threw
+                    lanes.submit("b", () -> { });
+                    Thread.sleep(1);
+                }
+            }
+        });
+
+        // Then
+        assertEquals("boom", thrown.getMessage());
+        assertEquals(0, thrown.getSuppressed().length);
+    }
+
+}
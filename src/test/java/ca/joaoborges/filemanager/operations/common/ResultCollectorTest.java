@@ -0,0 +1,45 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ResultCollector
+ */
+class ResultCollectorTest {
+
+    @Test
+    void testParallelWrites_areNotLost() {
+        // Given
+        final ResultCollector<String, String> collector = new ResultCollector<>();
+
+        // When
+        IntStream.range(0, 100_000).parallel().forEach(i -> collector.put("from-" + i, "to-" + i));
+        final Map<String, String> merged = new HashMap<>();
+        final int drained = collector.drainTo(merged);
+
+        // Then
+        assertEquals(100_000, drained);
+        assertEquals(100_000, merged.size());
+        assertEquals("to-42", merged.get("from-42"));
+    }
+
+    @Test
+    void testDrain_emptiesBuffers() {
+        // Given
+        final ResultCollector<String, String> collector = new ResultCollector<>();
+        collector.put("a", "b");
+
+        // When
+        collector.drainTo(new HashMap<>());
+
+        // Then
+        assertEquals(0, collector.size());
+    }
+
+}
@@ -0,0 +1,64 @@
+package ca.joaoborges.filemanager.operations.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for WorkerThreads
+ */
+class WorkerThreadsTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void testVirtualLanes_holdDevicePermits() {
+        // Given
+        final WorkerThreads workerThreads = new WorkerThreads(ExecutionMode.VIRTUAL, 3, 100);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger mostRunning = new AtomicInteger();
+        final AtomicInteger virtual = new AtomicInteger();
+        final int laneCount;
+
+        // When
+        try (LaneExecutor lanes = workerThreads.lanes("test", 1)) {
+            laneCount = lanes.getLanes();
+            for (int i = 0; i < 500; i++) {
+                // directories that do not exist yet are on the device of their closest existing ancestor
+                lanes.submit(root.resolve("folder-" + i), () -> {
+                    mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    if (Thread.currentThread().isVirtual()) {
+                        virtual.incrementAndGet();
+                    }
+                    try {
+                        Thread.sleep(1);
+                    } catch (final InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                });
+            }
+        }
+
+        // Then
+        assertEquals(100, laneCount);
+        assertEquals(500, virtual.get());
+        assertTrue(mostRunning.get() <= 3, "at most 3 tasks on one device, saw " + mostRunning.get());
+    }
+
+    @Test
+    void testPlatformMode_keepsConfiguredLanes() {
+        // When
+        try (LaneExecutor lanes = WorkerThreads.PLATFORM.lanes("test", 4)) {
+            // Then
+            assertEquals(4, lanes.getLanes());
+        }
+    }
+
+}
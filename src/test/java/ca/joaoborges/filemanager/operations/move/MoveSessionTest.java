@@ -0,0 +1,227 @@
+package ca.joaoborges.filemanager.operations.move;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
+
+/**
+ * Unit tests for MoveSession
+ *
+ * The cross-device path is forced by opening the session as if the stores differed.
+ */
+class MoveSessionTest {
+
+    @TempDir
+    Path tempDir;
+
+    // threshold 0 MB: every copy is striped
+    private final MoveEngine engine = new MoveEngine(0, 4, FsyncPolicy.PER_FILE, VerifyPolicy.NONE,
+            WorkerThreads.PLATFORM, new IoScheduler(50, 2000, 8));
+
+    private final MoveEngine verifyingEngine = new MoveEngine(0, 4, FsyncPolicy.NONE, VerifyPolicy.READ_BACK,
+            WorkerThreads.PLATFORM, new IoScheduler(50, 2000, 8));
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+        verifyingEngine.shutdown();
+    }
+
+    @Test
+    void testSameStoreMove_renamesFile() throws IOException {
+        // Given
+        final Path source = Files.writeString(tempDir.resolve("a.txt"), "content");
+        final MoveSession session = engine.open(tempDir, tempDir);
+
+        // When
+        session.move(source, tempDir.resolve("b.txt"));
+
+        // Then
+        assertTrue(session.isSameStore());
+        assertFalse(Files.exists(source));
+        assertEquals("content", Files.readString(tempDir.resolve("b.txt")));
+    }
+
+    @Test
+    void testCrossDeviceMove_copiesStripesAndPreservesTimestamps() throws IOException {
+        // Given
+        final byte[] content = new byte[1_000_003];
+        new Random(7).nextBytes(content);
+        final Path source = Files.write(tempDir.resolve("big.bin"), content);
+        final FileTime modified = FileTime.fromMillis(1_600_000_000_000L);
+        Files.setLastModifiedTime(source, modified);
+        final MoveSession session = new MoveSession(engine, false, tempDir, CancellationToken.NONE);
+
+        // When
+        final Path moved = session.move(source, tempDir.resolve("moved.bin"));
+        session.close();
+
+        // Then
+        assertFalse(Files.exists(source));
+        assertArrayEquals(content, Files.readAllBytes(moved));
+        assertEquals(modified, Files.getLastModifiedTime(moved));
+        assertFalse(Files.exists(tempDir.resolve(MoveSession.DIGEST_MANIFEST)));
+    }
+
+    @Test
+    void testVerifiedCrossDeviceMove_recordsDigestForDuplicateFinder() throws IOException {
+        // Given
+        final Path source = Files.writeString(tempDir.resolve("a.txt"), "hello");
+        final Path destination = Files.createDirectories(tempDir.resolve("dest/sub"));
+
+        // When
+        try (MoveSession session = new MoveSession(verifyingEngine, false, tempDir.resolve("dest"),
+                                                  CancellationToken.NONE)) {
+            session.move(source, destination.resolve("a.txt"));
+        }
+
+        // Then
+        assertEquals("hello", Files.readString(destination.resolve("a.txt")));
+        assertEquals(List.of("5d41402abc4b2a76b9719d911017c592  sub/a.txt"),
+                     Files.readAllLines(tempDir.resolve("dest").resolve(MoveSession.DIGEST_MANIFEST)));
+    }
+
+    @Test
+    void testVerifiedCrossDeviceMove_recordsDigestOfLargeFile() throws Exception {
+        // Given
+        final byte[] content = new byte[3_000_017];
+        new Random(11).nextBytes(content);
+        final Path source = Files.write(tempDir.resolve("big.bin"), content);
+        final String expected = HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+
+        // When
+        try (MoveSession session = new MoveSession(verifyingEngine, false, tempDir, CancellationToken.NONE)) {
+            session.move(source, tempDir.resolve("moved.bin"));
+        }
+
+        // Then
+        assertFalse(Files.exists(source));
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve("moved.bin")));
+        assertEquals(List.of(expected + "  moved.bin"),
+                     Files.readAllLines(tempDir.resolve(MoveSession.DIGEST_MANIFEST)));
+    }
+
+    @Test
+    void testMove_neverReplacesExistingFile() throws IOException {
+        // Given
+        final Path source = Files.writeString(tempDir.resolve("a.txt"), "new");
+        final Path existing = Files.writeString(tempDir.resolve("b.txt"), "old");
+
+        // Then
+        assertThrows(FileAlreadyExistsException.class, () -> engine.open(tempDir, tempDir).move(source, existing));
+        assertThrows(FileAlreadyExistsException.class,
+                     () -> new MoveSession(engine, false, tempDir, CancellationToken.NONE).move(source, existing));
+        assertEquals("old", Files.readString(existing));
+        assertTrue(Files.exists(source));
+    }
+
+    @Test
+    void testConcurrentMovesToSameName_neverReplaceEachOther() throws Exception {
+        // Given
+        final int movers = 8;
+        final MoveSession session = engine.open(tempDir, tempDir);
+        final Path target = tempDir.resolve("target.txt");
+        final List<Path> sources = new ArrayList<>();
+        for (int i = 0; i < movers; i++) {
+            sources.add(Files.writeString(tempDir.resolve("source-" + i + ".txt"), "content " + i));
+        }
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService threads = Executors.newFixedThreadPool(movers);
+
+        // When
+        final List<Future<Boolean>> moved = new ArrayList<>();
+        for (final Path source : sources) {
+            moved.add(threads.submit(() -> {
+                start.await();
+                try {
+                    session.move(source, target);
+                    return true;
+                } catch (final FileAlreadyExistsException taken) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int winners = 0;
+        for (final Future<Boolean> result : moved) {
+            winners += result.get() ? 1 : 0;
+        }
+        threads.shutdown();
+
+        // Then: one file took the name, every other one is still at its source
+        assertEquals(1, winners);
+        assertEquals(movers - 1, sources.stream().filter(Files::exists).count());
+    }
+
+    @Test
+    void testConcurrentVerifiedMoves_shareTheBoundedCopyBuffers() throws Exception {
+        // Given: one I/O permit per device, so every digest waits for the single pooled buffer
+        final List<Path> sources = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            sources.add(Files.writeString(tempDir.resolve("file" + i + ".txt"), "content " + i));
+        }
+        final Path destination = Files.createDirectories(tempDir.resolve("dest"));
+        final ExecutorService movers = Executors.newFixedThreadPool(8);
+
+        // When
+        try (MoveSession session = new MoveSession(verifyingEngine, false, destination, CancellationToken.NONE)) {
+            final List<Future<Path>> moves = new ArrayList<>();
+            for (final Path source : sources) {
+                moves.add(movers.submit(() -> session.move(source, destination.resolve(source.getFileName()))));
+            }
+            for (final Future<Path> move : moves) {
+                move.get();
+            }
+        } finally {
+            movers.shutdownNow();
+        }
+
+        // Then
+        assertEquals(8, Files.readAllLines(destination.resolve(MoveSession.DIGEST_MANIFEST)).size());
+        for (int i = 0; i < 8; i++) {
+            assertEquals("content " + i, Files.readString(destination.resolve("file" + i + ".txt")));
+        }
+    }
+
+    @Test
+    void testEnsureDirectory_createsNestedDirectoryOnce() throws IOException {
+        // Given
+        final MoveSession session = engine.open(tempDir, tempDir);
+        final Path nested = tempDir.resolve("2024/01-janeiro");
+
+        // When
+        session.ensureDirectory(nested);
+        Files.delete(nested);
+        session.ensureDirectory(nested);
+
+        // Then - the second call is answered by the registry without touching the disk
+        assertFalse(Files.exists(nested));
+        assertTrue(Files.isDirectory(tempDir.resolve("2024")));
+    }
+
+}
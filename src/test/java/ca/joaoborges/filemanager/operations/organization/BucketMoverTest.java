@@ -0,0 +1,70 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.ExecutionMode;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import ca.joaoborges.filemanager.operations.common.ResultCollector;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
+import ca.joaoborges.filemanager.operations.move.FsyncPolicy;
+import ca.joaoborges.filemanager.operations.move.MoveEngine;
+import ca.joaoborges.filemanager.operations.move.VerifyPolicy;
+
+/**
+ * Unit tests for BucketMover
+ */
+class BucketMoverTest {
+
+    @TempDir
+    Path tempDir;
+
+    // a single permit per device, shared by the classify and move stages
+    private final WorkerThreads workerThreads = new WorkerThreads(ExecutionMode.VIRTUAL, 1, 2);
+
+    private final IoScheduler ioScheduler = new IoScheduler(50, 2000, 8);
+
+    private final MoveEngine moveEngine = new MoveEngine(256, 4, FsyncPolicy.NONE, VerifyPolicy.NONE, workerThreads,
+                                                         ioScheduler);
+
+    @Test
+    void testVirtualThreads_moreFilesThanALaneQueueHoldsWithOnePermitPerDevice() throws IOException {
+        // Given: every file goes to the same folder, so the classifiers block on that folder's full mover lane
+        final Path source = Files.createDirectories(tempDir.resolve("source"));
+        final Path destination = Files.createDirectories(tempDir.resolve("destination"));
+        for (int i = 0; i < 1_000; i++) {
+            Files.writeString(source.resolve("a" + i + ".txt"), "content");
+        }
+        final BucketMover bucketMover = new BucketMover();
+        ReflectionTestUtils.setField(bucketMover, "moveEngine", moveEngine);
+        ReflectionTestUtils.setField(bucketMover, "workerThreads", workerThreads);
+        ReflectionTestUtils.setField(bucketMover, "ioScheduler", ioScheduler);
+        final ResultCollector<String, String> movedFiles = new ResultCollector<>();
+
+        // When
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> bucketMover.organize(
+                new Directory(source.toString()), new Directory(destination.toString()), (dir, name) -> true, false,
+                OrganizeStrategies.parse(null, null, destination), false, 1, movedFiles, CancellationToken.NONE));
+
+        // Then
+        final Map<String, String> moved = new HashMap<>();
+        assertEquals(1_000, movedFiles.drainTo(moved));
+        try (var folder = Files.list(destination.resolve("a"))) {
+            assertEquals(1_000, folder.count());
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package ca.joaoborges.filemanager.operations.organization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for OrganizeStrategies
+ */
+class OrganizeStrategiesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFirstLetter_sharesFolderAcrossCase() {
+        // Given
+        final OrganizeStrategy strategy = OrganizeStrategies.parse(null, null, tempDir);
+
+        // When
+        final Path upper = strategy.folderFor(new File("Abba.mp3"), tempDir);
+        final Path lower = strategy.folderFor(new File("air.mp3"), tempDir);
+
+        // Then
+        assertEquals(tempDir.resolve("A"), upper);
+        assertEquals(upper, lower);
+    }
+
+    @Test
+    void testComposite_nestsFolders() throws IOException {
+        // Given
+        final OrganizeStrategy strategy = OrganizeStrategies.parse("extension-group, size-band", null, tempDir);
+        final File song = Files.writeString(tempDir.resolve("song.mp3"), "tiny").toFile();
+
+        // When
+        final Path folder = strategy.folderFor(song, tempDir);
+
+        // Then
+        assertEquals(tempDir.resolve("MP3 audio (mp3)").resolve("0-1 MB"), folder);
+    }
+
+    @Test
+    void testUnknownStrategy_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> OrganizeStrategies.parse("by-color", null, tempDir));
+    }
+
+}
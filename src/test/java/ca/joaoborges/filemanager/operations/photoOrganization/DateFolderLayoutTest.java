@@ -0,0 +1,81 @@
+package ca.joaoborges.filemanager.operations.photoOrganization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for DateFolderLayout
+ */
+class DateFolderLayoutTest {
+
+    private static final Path ROOT = Path.of("/photos");
+
+    @Test
+    void testDefaultLayout_matchesExistingTree() {
+        // Given
+        final DateFolderLayout.Folders folders = DateFolderLayout.compile(null).forRoot(ROOT);
+
+        // Then
+        assertEquals(ROOT.resolve("2021/01-janeiro"), folders.get(2021, 1));
+        assertEquals(ROOT.resolve("2021/outros"), folders.get(2021, 0));
+        assertEquals("2021/03-março", DateFolderLayout.compile(null).render(2021, 3));
+    }
+
+    @Test
+    void testYearsOutsideTable_areRenderedOnDemand() {
+        // Given
+        final DateFolderLayout.Folders folders = DateFolderLayout.compile(DateFolderLayout.DEFAULT_TEMPLATE)
+            .forRoot(ROOT);
+
+        // Then
+        assertEquals(ROOT.resolve("1970/outros"), folders.get(1970, 0));
+        assertEquals(ROOT.resolve("2999/12-dezembro"), folders.get(2999, 12));
+    }
+
+    @Test
+    void testCustomLayout_replacesMonthTokensWhenUndated() {
+        // Given
+        final DateFolderLayout layout = DateFolderLayout.compile("{year}-{month}/{monthName}");
+
+        // Then
+        assertEquals("2022-07/julho", layout.render(2022, 7));
+        assertEquals("2022-outros/outros", layout.render(2022, 0));
+    }
+
+    @Test
+    void testSingleSegmentLayout_keepsYearWhenUndated() {
+        // Given
+        final DateFolderLayout.Folders folders = DateFolderLayout.compile("{year}-{month}").forRoot(ROOT);
+
+        // Then
+        assertEquals(ROOT.resolve("2021-03"), folders.get(2021, 3));
+        assertEquals(ROOT.resolve("2021-outros"), folders.get(2021, 0));
+        assertEquals(ROOT.resolve("2022-outros"), folders.get(2022, 0));
+        assertEquals("outros 2021",
+                     DateFolderLayout.compile("{month}-{monthName} {year}").render(2021, 0));
+    }
+
+    @Test
+    void testCompile_rejectsPathsLeavingTheRoot() {
+        assertThrows(IllegalArgumentException.class, () -> DateFolderLayout.compile("../../{year}"));
+        assertThrows(IllegalArgumentException.class, () -> DateFolderLayout.compile("/{year}/{month}"));
+        assertThrows(IllegalArgumentException.class, () -> DateFolderLayout.compile("{year}//{month}"));
+        assertThrows(IllegalArgumentException.class, () -> DateFolderLayout.compile("{year}\\..\\{month}"));
+    }
+
+    @Test
+    void testCompile_cachesLayouts() {
+        assertSame(DateFolderLayout.compile("{year}"), DateFolderLayout.compile("{year}"));
+    }
+
+    @Test
+    void testCompile_rejectsUnknownTokens() {
+        assertThrows(IllegalArgumentException.class, () -> DateFolderLayout.compile("{year}/{day}"));
+    }
+
+}
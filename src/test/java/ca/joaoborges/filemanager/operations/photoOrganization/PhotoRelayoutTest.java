@@ -0,0 +1,159 @@
+package ca.joaoborges.filemanager.operations.photoOrganization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
+import ca.joaoborges.filemanager.operations.move.FsyncPolicy;
+import ca.joaoborges.filemanager.operations.move.MoveEngine;
+import ca.joaoborges.filemanager.operations.move.VerifyPolicy;
+
+/**
+ * Unit tests for PhotoRelayout
+ */
+class PhotoRelayoutTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final MoveEngine engine = new MoveEngine(256, 4, FsyncPolicy.NONE, VerifyPolicy.NONE,
+            WorkerThreads.PLATFORM, new IoScheduler(50, 2000, 8));
+
+    private final PhotoRelayout relayout = new PhotoRelayout();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relayout, "moveEngine", engine);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(engine, "shutdown");
+    }
+
+    @Test
+    void testRelayout_renamesWholeFolders() throws IOException {
+        // Given
+        photo("2021/01/a.jpg");
+        photo("2021/02/b.jpg");
+
+        // When
+        final PhotoRelayoutResult result = relayout.execute(params("{year}/{month}", "{year}-{month}", false));
+
+        // Then
+        assertEquals(2, result.getMovedDirectories().size());
+        assertTrue(Files.exists(tempDir.resolve("2021-01/a.jpg")));
+        assertTrue(Files.exists(tempDir.resolve("2021-02/b.jpg")));
+        assertFalse(Files.exists(tempDir.resolve("2021")));
+    }
+
+    @Test
+    void testRelayout_mergesIntoExistingFolder() throws IOException {
+        // Given
+        photo("2021/01/a.jpg");
+        photo("2021-01/existing.jpg");
+
+        // When
+        final PhotoRelayoutResult result = relayout.execute(params("{year}/{month}", "{year}-{month}", false));
+
+        // Then
+        assertEquals(1, result.getMergedDirectories().size());
+        assertTrue(Files.exists(tempDir.resolve("2021-01/a.jpg")));
+        assertTrue(Files.exists(tempDir.resolve("2021-01/existing.jpg")));
+        assertFalse(Files.exists(tempDir.resolve("2021")));
+    }
+
+    @Test
+    void testRelayout_movesFolderBelowItself() throws IOException {
+        // Given
+        photo("2021/a.jpg");
+
+        // When
+        relayout.execute(params("{year}", "{year}/{year}", false));
+
+        // Then
+        assertTrue(Files.exists(tempDir.resolve("2021/2021/a.jpg")));
+        assertFalse(Files.exists(tempDir.resolve(".relayout")));
+    }
+
+    @Test
+    void testDryRun_onlyPlans() throws IOException {
+        // Given
+        photo("2021/01/a.jpg");
+
+        // When
+        final PhotoRelayoutResult result = relayout.execute(params("{year}/{month}", "{year}-{month}", true));
+
+        // Then
+        assertEquals(tempDir.resolve("2021-01").toString(),
+                     result.getMovedDirectories().get(tempDir.resolve("2021/01").toString()));
+        assertTrue(Files.exists(tempDir.resolve("2021/01/a.jpg")));
+    }
+
+    @Test
+    void testSplittingFolders_isRejected() throws IOException {
+        // Given
+        photo("2021/a.jpg");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                     () -> relayout.execute(params("{year}", "{year}/{month}", false)));
+    }
+
+    @Test
+    void testMergingTwoFolders_isRejected() throws IOException {
+        // Given
+        photo("2021/01/a.jpg");
+        photo("2021/02/b.jpg");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> relayout.execute(params("{year}/{month}", "{year}", false)));
+        assertTrue(Files.exists(tempDir.resolve("2021/01/a.jpg")));
+    }
+
+    @Test
+    void testInterruptedStagedRun_isFinishedByNextRun() throws IOException {
+        // Given a run that crashed after staging 2021 for its new folder 2021/2021
+        photo(".relayout/2021/2021/a.jpg");
+        Files.writeString(tempDir.resolve(".relayout/plan.txt"), Path.of("2021", "2021") + System.lineSeparator());
+
+        // When
+        relayout.execute(params("{year}", "{year}/{year}", false));
+
+        // Then
+        assertTrue(Files.exists(tempDir.resolve("2021/2021/a.jpg")));
+        assertFalse(Files.exists(tempDir.resolve(".relayout")));
+    }
+
+    private void photo(final String relative) throws IOException {
+        final Path photo = tempDir.resolve(relative);
+        Files.createDirectories(photo.getParent());
+        Files.writeString(photo, relative);
+    }
+
+    private Map<String, Object> params(final String from, final String to, final boolean dryRun) {
+        final Map<String, Object> params = new HashMap<>();
+        params.put(Directory.class.getName(), new Directory(tempDir.toString()));
+        params.put(PhotoRelayout.FROM_LAYOUT, from);
+        params.put(PhotoRelayout.TO_LAYOUT, to);
+        params.put(PhotoRelayout.DRY_RUN, dryRun);
+        return params;
+    }
+
+}
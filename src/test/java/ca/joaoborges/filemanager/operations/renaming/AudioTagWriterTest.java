@@ -0,0 +1,53 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for AudioTagWriter
+ */
+class AudioTagWriterTest {
+
+    @Test
+    void testChangedFields_skipsValuesAlreadyStored() throws Exception {
+        // Given
+        final Tag tag = new ID3v24Tag();
+        tag.setField(FieldKey.ARTIST, "Artist");
+        tag.setField(FieldKey.TITLE, "Old Title");
+        final Map<FieldKey, String> fields = new EnumMap<>(FieldKey.class);
+        fields.put(FieldKey.ARTIST, "Artist");
+        fields.put(FieldKey.TITLE, "New Title");
+        fields.put(FieldKey.GENRE, "");
+
+        // When
+        final Map<FieldKey, String> changed = AudioTagWriter.changedFields(tag, fields);
+
+        // Then
+        assertEquals(Map.of(FieldKey.TITLE, "New Title"), changed);
+    }
+
+    @Test
+    void testChangedFields_emptyWhenTagMatches() throws Exception {
+        // Given
+        final Tag tag = new ID3v24Tag();
+        tag.setField(FieldKey.ARTIST, "Artist");
+        final Map<FieldKey, String> fields = new EnumMap<>(FieldKey.class);
+        fields.put(FieldKey.ARTIST, "Artist");
+        fields.put(FieldKey.YEAR, "");
+
+        // When
+        final Map<FieldKey, String> changed = AudioTagWriter.changedFields(tag, fields);
+
+        // Then
+        assertTrue(changed.isEmpty());
+    }
+
+}
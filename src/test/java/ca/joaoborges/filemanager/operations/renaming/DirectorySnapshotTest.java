@@ -0,0 +1,78 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ca.joaoborges.filemanager.model.Directory;
+
+/**
+ * Unit tests for DirectorySnapshot
+ */
+class DirectorySnapshotTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void testOf_indexesEveryNameButListsFilteredContents() throws IOException {
+        // Given
+        Files.createFile(root.resolve("b.mp3"));
+        Files.createFile(root.resolve("a.mp3"));
+        Files.createFile(root.resolve("c.txt"));
+
+        // When
+        final DirectorySnapshot snapshot = DirectorySnapshot.of(new Directory(root.toString()),
+                (dir, name) -> name.endsWith(".mp3"));
+
+        // Then
+        assertEquals(2, snapshot.getContents().size());
+        assertEquals("a.mp3", snapshot.getContents().get(0).getName());
+        assertTrue(snapshot.contains("c.txt"));
+    }
+
+    @Test
+    void testClaim_tracksNamesGivenOutDuringTheRun() throws IOException {
+        // Given
+        Files.createFile(root.resolve("one.mp3"));
+        Files.createFile(root.resolve("two.mp3"));
+        final DirectorySnapshot snapshot = DirectorySnapshot.of(new Directory(root.toString()), null);
+
+        // When
+        final String first = snapshot.claim("one.mp3", "Song.mp3");
+        final String second = snapshot.claim("two.mp3", "Song.mp3");
+        final String reused = snapshot.claim("Song.mp3", "one.mp3");
+
+        // Then
+        assertEquals("Song.mp3", first);
+        assertNotEquals("Song.mp3", second);
+        assertTrue(second.endsWith(") Song.mp3"));
+        assertEquals("one.mp3", reused);
+        assertFalse(snapshot.contains("two.mp3"));
+    }
+
+    @Test
+    void testRelease_givesBackANameWhoseRenameFailed() throws IOException {
+        // Given
+        Files.createFile(root.resolve("one.mp3"));
+        final DirectorySnapshot snapshot = DirectorySnapshot.of(new Directory(root.toString()), null);
+        final String claimed = snapshot.claim("one.mp3", "Song.mp3");
+
+        // When
+        snapshot.release("one.mp3", claimed);
+
+        // Then
+        assertTrue(snapshot.contains("one.mp3"));
+        assertFalse(snapshot.contains("Song.mp3"));
+        assertEquals("Song.mp3", snapshot.claim("two.mp3", "Song.mp3"));
+    }
+
+}
@@ -0,0 +1,31 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ExclusionIndex
+ */
+class ExclusionIndexTest {
+
+    private final ExclusionIndex index = new ExclusionIndex(List.of("50 Cent", "t-pain", "ne-yo"));
+
+    @Test
+    void testExact_ignoresCase() {
+        assertTrue(index.isExclusion("T-Pain"));
+        assertFalse(index.isExclusion("t-pain feat"));
+    }
+
+    @Test
+    void testPrefixAndSubstring() {
+        assertTrue(index.startsWithExclusion("50 cent - in da club"));
+        assertFalse(index.startsWithExclusion("the 50 cent"));
+        assertTrue(index.containsExclusion("usher feat ne-yo"));
+        assertFalse(index.containsExclusion("neyo"));
+    }
+
+}
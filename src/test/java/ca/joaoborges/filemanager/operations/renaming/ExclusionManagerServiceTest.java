@@ -0,0 +1,89 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit tests for ExclusionManagerService
+ */
+class ExclusionManagerServiceTest {
+
+    @TempDir
+    Path rulesDir;
+
+    private final ExclusionManagerService service = new ExclusionManagerService();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.destroy();
+        RuleSet.install(RuleLoader.load(null));
+    }
+
+    @Test
+    void testRulesDir_overridesBundledRules() throws Exception {
+        // Given
+        writeExclusions("my band");
+        Files.writeString(rulesDir.resolve(RuleLoader.STRINGS_TO_FILTER), "S1=zzz\n");
+        ReflectionTestUtils.setField(service, "rulesDir", rulesDir.toString());
+
+        // When
+        service.afterPropertiesSet();
+
+        // Then
+        assertTrue(service.hasExclusionFor("My Band", false));
+        assertFalse(service.hasExclusionFor("50 cent", false));
+        assertEquals("a b", RenameRules.defaults().apply("azzzb"));
+    }
+
+    @Test
+    void testReload_swapsRulesAndKeepsThemOnBadFile() throws Exception {
+        // Given
+        writeExclusions("first");
+        ReflectionTestUtils.setField(service, "rulesDir", rulesDir.toString());
+        service.afterPropertiesSet();
+
+        // When
+        writeExclusions("second");
+        final boolean reloaded = service.reload();
+        Files.writeString(rulesDir.resolve(RuleLoader.EXCLUSIONS), "<exclusions><broken");
+        final boolean reloadedBroken = service.reload();
+
+        // Then
+        assertTrue(reloaded);
+        assertFalse(reloadedBroken);
+        assertTrue(service.hasExclusionFor("second", false));
+        assertFalse(service.hasExclusionFor("first", false));
+    }
+
+    @Test
+    void testExclusions_rejectUnexpectedTypes() throws Exception {
+        // Given
+        writeExclusions("kept");
+        ReflectionTestUtils.setField(service, "rulesDir", rulesDir.toString());
+        service.afterPropertiesSet();
+        Files.writeString(rulesDir.resolve(RuleLoader.EXCLUSIONS), "<java.lang.ProcessBuilder/>");
+
+        // When
+        final boolean reloaded = service.reload();
+
+        // Then
+        assertFalse(reloaded);
+        assertTrue(service.hasExclusionFor("kept", false));
+    }
+
+    private void writeExclusions(final String value) throws IOException {
+        Files.writeString(rulesDir.resolve(RuleLoader.EXCLUSIONS),
+                "<?xml version=\"1.0\"?>\n<exclusions>\n\t<exclusion value=\"" + value + "\" />\n</exclusions>\n");
+    }
+
+}
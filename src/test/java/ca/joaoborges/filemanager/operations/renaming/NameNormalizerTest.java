@@ -0,0 +1,66 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.apache.commons.text.WordUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit tests for NameNormalizer
+ *
+ * The expected names come from the string-by-string pipeline the normalizer replaced.
+ */
+class NameNormalizerTest {
+
+    private final NameNormalizer normalizer = new NameNormalizer();
+
+    private ExclusionManagerService exclusions;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exclusions = new ExclusionManagerService();
+        exclusions.afterPropertiesSet();
+        ReflectionTestUtils.setField(normalizer, "exclusions", exclusions);
+    }
+
+    @Test
+    void testSampleNames_matchPreviousPipeline() {
+        final List<String> samples = List.of(
+                "01 - artist_name - song title",
+                "  03. The+Band - Live &amp; Loud  ",
+                "50 cent - in da club",
+                "[group] 2010 - some_track",
+                "ÉDITH PIAF - NON, JE NE REGRETTE RIEN",
+                "track&#32;one &lt;remix&gt;",
+                "x-five - t-pain",
+                "mIxEd   CaSe\tname");
+
+        for (final String sample : samples) {
+            // Given
+            final String base = sample.trim().toLowerCase();
+
+            // When
+            final String normalized = normalizer.finish(normalizer.normalizeBase(base), "mp3");
+
+            // Then
+            assertEquals(previousPipeline(base, "mp3"), normalized, sample);
+        }
+    }
+
+    private String previousPipeline(final String base, final String extension) {
+        String name = RenameRules.defaults().apply(base.trim()).trim();
+        if (!exclusions.startsWithExclusion(name)) {
+            while (!name.isEmpty() && (name.charAt(0) < 'a' || name.charAt(0) > 'z')) {
+                name = name.substring(1).trim();
+            }
+        }
+        name = name.trim() + "." + extension;
+        return WordUtils.capitalizeFully(StringEscapeUtils.unescapeXml(name));
+    }
+
+}
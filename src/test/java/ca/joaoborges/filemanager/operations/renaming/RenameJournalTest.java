@@ -0,0 +1,108 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ca.joaoborges.filemanager.operations.renaming.RenameJournal.Move;
+import ca.joaoborges.filemanager.operations.renaming.RenameJournal.Recovery;
+
+/**
+ * Unit tests for RenameJournal
+ */
+class RenameJournalTest {
+
+    @TempDir
+    Path root;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void testApply_neverReplacesExistingFile() throws IOException {
+        // Given
+        final Path first = Files.createFile(root.resolve("a.txt"));
+        final Path second = Files.createFile(root.resolve("b.txt"));
+        final RenameJournal journal = new RenameJournal(journalDir.toString(), Recovery.ROLLBACK);
+
+        // When
+        final boolean[] applied;
+        try (RenameJournal.Run run = journal.open()) {
+            applied = run.apply(List.of(new Move(first, second), new Move(first, root.resolve("c.txt"))));
+        }
+
+        // Then
+        assertArrayEquals(new boolean[] { false, true }, applied);
+        assertTrue(Files.exists(second));
+        assertTrue(Files.exists(root.resolve("c.txt")));
+    }
+
+    @Test
+    void testRecover_rollbackRestoresChainedRenames() throws IOException {
+        // Given: x -> z then y -> x, and the process dies before closing the run (its journal left unlocked)
+        Files.createFile(root.resolve("x.txt"));
+        Files.createFile(root.resolve("y.txt"));
+        final RenameJournal journal = new RenameJournal(journalDir.toString(), Recovery.ROLLBACK);
+        final Path leftOver = journalDir.resolve("rename-0-crashed" + RenameJournal.SUFFIX);
+        try (RenameJournal.Run run = journal.open()) {
+            run.apply(List.of(new Move(root.resolve("x.txt"), root.resolve("z.txt")),
+                              new Move(root.resolve("y.txt"), root.resolve("x.txt"))));
+            Files.copy(run.getFile(), leftOver);
+        }
+
+        // When
+        final int recovered = journal.recover(leftOver);
+
+        // Then
+        assertEquals(2, recovered);
+        assertTrue(Files.exists(root.resolve("x.txt")));
+        assertTrue(Files.exists(root.resolve("y.txt")));
+        assertFalse(Files.exists(root.resolve("z.txt")));
+        assertFalse(Files.exists(leftOver));
+    }
+
+    @Test
+    void testRecover_skipsJournalOfLiveRun() throws IOException {
+        // Given: a run still open, e.g. in another process sharing the journal directory
+        Files.createFile(root.resolve("a.txt"));
+        final RenameJournal journal = new RenameJournal(journalDir.toString(), Recovery.ROLLBACK);
+
+        try (RenameJournal.Run run = journal.open()) {
+            run.apply(List.of(new Move(root.resolve("a.txt"), root.resolve("b.txt"))));
+
+            // When
+            journal.recover();
+
+            // Then
+            assertTrue(Files.exists(root.resolve("b.txt")));
+            assertTrue(Files.exists(run.getFile()));
+        }
+    }
+
+    @Test
+    void testRecover_replayCompletesIntents() throws IOException {
+        // Given: an intent journaled but never applied
+        Files.createFile(root.resolve("old.txt"));
+        final Path file = journalDir.resolve("rename-1-test" + RenameJournal.SUFFIX);
+        Files.writeString(file, "I\t0\t" + root.resolve("old.txt") + "\t" + root.resolve("new.txt") + "\nD\t");
+        final RenameJournal journal = new RenameJournal(journalDir.toString(), Recovery.REPLAY);
+
+        // When
+        journal.recover();
+
+        // Then
+        assertTrue(Files.exists(root.resolve("new.txt")));
+        assertFalse(Files.exists(root.resolve("old.txt")));
+        assertFalse(Files.exists(file));
+    }
+
+}
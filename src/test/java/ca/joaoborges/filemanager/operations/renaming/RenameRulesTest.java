@@ -0,0 +1,56 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for RenameRules
+ */
+class RenameRulesTest {
+
+    @Test
+    void testDefaults_replaceLiteralsAndRegexes() {
+        // Given
+        final RenameRules rules = RenameRules.defaults();
+
+        // When / Then
+        assertEquals("artist - song", rules.apply("artist_-_song"));
+        assertEquals("artist song", rules.apply("artist+song"));
+        assertEquals("artist song", rules.apply("artist song www.download.com"));
+        assertEquals("song", rules.apply("[group] song"));
+        assertEquals("song", rules.apply("song ACAPELLA"));
+    }
+
+    @Test
+    void testDefaults_removeEachBracketedGroupOnItsOwn() {
+        // Given
+        final RenameRules rules = RenameRules.defaults();
+
+        // When / Then: the text between two groups is kept; each group leaves a space behind
+        assertEquals("song   - x", rules.apply("song (live) - x (remix)"));
+        assertEquals("b", rules.apply("[a] b [c]"));
+        assertEquals("song   x", rules.apply("song [live] x (remix)"));
+    }
+
+    @Test
+    void testLiterals_areNotRegexes() {
+        // Given
+        final RenameRules rules = new RenameRules(List.of("^", "."), List.of());
+
+        // When / Then
+        assertEquals("a b c", rules.apply("a^b.c"));
+    }
+
+    @Test
+    void testOverlappingLiterals_preferLongest() {
+        // Given
+        final RenameRules rules = new RenameRules(List.of("ab", "abc", "bcd"), List.of());
+
+        // When / Then
+        assertEquals("x d", rules.apply("xabcd"));
+    }
+
+}
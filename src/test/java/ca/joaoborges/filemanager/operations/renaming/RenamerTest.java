@@ -0,0 +1,198 @@
+package ca.joaoborges.filemanager.operations.renaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ca.joaoborges.filemanager.exception.OperationCancelledException;
+import ca.joaoborges.filemanager.model.Directory;
+import ca.joaoborges.filemanager.model.FileDTO;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+import ca.joaoborges.filemanager.operations.common.IoScheduler;
+import ca.joaoborges.filemanager.operations.common.OperationConstants;
+import ca.joaoborges.filemanager.operations.common.WorkerThreads;
+import ca.joaoborges.filemanager.operations.renaming.Renamer.RenamingResult;
+import ca.joaoborges.filemanager.type.FileType;
+
+/**
+ * Unit tests for Renamer
+ */
+class RenamerTest {
+
+    private static final Pattern COLLISION_STAMP = Pattern.compile("\\(\\d+\\) ");
+
+    @TempDir
+    Path root;
+
+    @TempDir
+    Path journalDir;
+
+    private final Renamer renamer = new Renamer();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final ExclusionManagerService exclusions = new ExclusionManagerService();
+        exclusions.afterPropertiesSet();
+        final NameNormalizer normalizer = new NameNormalizer();
+        ReflectionTestUtils.setField(normalizer, "exclusions", exclusions);
+        ReflectionTestUtils.setField(renamer, "normalizer", normalizer);
+        ReflectionTestUtils.setField(renamer, "journal",
+                new RenameJournal(journalDir.toString(), RenameJournal.Recovery.ROLLBACK));
+        ReflectionTestUtils.setField(renamer, "workerThreads", WorkerThreads.PLATFORM);
+        ReflectionTestUtils.setField(renamer, "ioScheduler", new IoScheduler(50, 2000, 8));
+        ReflectionTestUtils.setField(renamer, "postProcessors", new PostProcessorRegistry(
+                Map.of(PostProcessor.BEAN_NAME_FORMAT + FileType.TEXT, new NamesOnlyPostProcessor())));
+    }
+
+    @Test
+    void testExecute_typeWithoutPostProcessorIsSkipped() throws IOException {
+        // Given
+        Files.createFile(root.resolve("my_notes.txt"));
+        Files.createFile(root.resolve("my_photo.jpg"));
+
+        // When
+        final RenamingResult result = renamer.execute(params(root, 1));
+
+        // Then
+        assertEquals(1, result.getRenamedFiles().size());
+        assertTrue(Files.exists(root.resolve("My Notes.txt")));
+        assertTrue(Files.exists(root.resolve("my_photo.jpg")));
+        try (var journals = Files.list(journalDir)) {
+            assertEquals(0, journals.count());
+        }
+    }
+
+    @Test
+    void testExecute_parallelRunRenamesLikeSequentialRun() throws IOException {
+        // Given
+        final Path sequentialRoot = Files.createDirectory(root.resolve("sequential"));
+        final Path parallelRoot = Files.createDirectory(root.resolve("parallel"));
+        for (final Path tree : List.of(sequentialRoot, parallelRoot)) {
+            for (int album = 0; album < 20; album++) {
+                final Path folder = Files.createDirectories(tree.resolve("album" + album).resolve("disc"));
+                Files.createFile(folder.resolve("track_one.txt"));
+                Files.createFile(folder.resolve("Track One.txt"));
+                Files.createFile(folder.getParent().resolve("cover_notes.txt"));
+            }
+        }
+
+        // When
+        final RenamingResult sequential = renamer.execute(params(sequentialRoot, 1));
+        final RenamingResult parallel = renamer.execute(params(parallelRoot, 4));
+
+        // Then
+        final List<String> sequentialNames = relativize(sequentialRoot, sequential.getRenamedFiles());
+        final List<String> parallelNames = relativize(parallelRoot, parallel.getRenamedFiles());
+        assertEquals(40, parallelNames.size());
+        assertEquals(sequentialNames.size(), parallelNames.size());
+        final List<String> sorted = new ArrayList<>(parallelNames);
+        sorted.sort(null);
+        assertEquals(sorted, parallelNames);
+        // same names on disk, whatever worker renamed each directory; collisions are prefixed with the time
+        final List<String> onDisk = tree(parallelRoot);
+        assertEquals(tree(sequentialRoot), onDisk);
+        assertEquals(60, onDisk.size());
+        assertTrue(onDisk.contains(Path.of("album7", "Cover Notes.txt").toString()));
+        assertTrue(onDisk.contains(Path.of("album7", "disc", "Track One.txt").toString()));
+        assertTrue(onDisk.contains(Path.of("album7", "disc", "(n) Track One.txt").toString()));
+        assertTrue(onDisk.stream().noneMatch(name -> name.contains("_")));
+    }
+
+    @Test
+    void testPreview_proposesNamesWithoutRenaming() throws Exception {
+        // Given
+        Files.createFile(root.resolve("my_notes.txt"));
+        Files.createFile(root.resolve("My Notes.txt"));
+        Files.createDirectory(root.resolve("sub"));
+        Files.createFile(root.resolve("sub").resolve("other_file.txt"));
+
+        // When
+        final RenamePreview preview = renamer.preview(params(root, 4));
+
+        // Then
+        assertTrue(preview.awaitCompletion(10, TimeUnit.SECONDS));
+        assertNull(preview.getError());
+        assertEquals(2, preview.getTotal());
+        assertTrue(preview.page(0, 1).get(0).to().endsWith(") My Notes.txt"));
+        assertEquals("Other File.txt", preview.page(1, 1).get(0).to());
+        assertTrue(preview.page(2, 1).isEmpty());
+        assertTrue(Files.exists(root.resolve("my_notes.txt")));
+        assertTrue(Files.exists(root.resolve("sub").resolve("other_file.txt")));
+    }
+
+    @Test
+    void testExecute_cancelledRunStopsBeforeRenaming() throws IOException {
+        // Given
+        Files.createFile(root.resolve("my_notes.txt"));
+        final CancellationToken cancellation = new CancellationToken();
+        cancellation.cancel("Stopped by test");
+        final Map<String, Object> params = params(root, 1);
+        params.put(OperationConstants.CANCELLATION, cancellation);
+
+        // When & Then
+        assertThrows(OperationCancelledException.class, () -> renamer.execute(params));
+        assertTrue(Files.exists(root.resolve("my_notes.txt")));
+        try (var journals = Files.list(journalDir)) {
+            assertEquals(0, journals.count());
+        }
+    }
+
+    private static Map<String, Object> params(final Path directory, final int workers) {
+        final Map<String, Object> params = new HashMap<>();
+        params.put(Directory.class.getName(), new Directory(directory.toString()));
+        params.put(Renamer.INCLUDE_SUB_DIRECTORIES, true);
+        params.put(Renamer.WORKERS, workers);
+        return params;
+    }
+
+    /**
+     * Post processor for text files in these tests: names and files are left as they are.
+     */
+    private static final class NamesOnlyPostProcessor implements PostProcessor {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String processFileName(final String fileName) {
+            return fileName;
+        }
+
+        @Override
+        public void processFile(final FileDTO file, final RenamingResult result, final DirectorySnapshot snapshot) {
+            // nothing to do
+        }
+    }
+
+    private static List<String> tree(final Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> COLLISION_STAMP.matcher(root.relativize(file).toString()).replaceAll("(n) "))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static List<String> relativize(final Path tree, final Map<String, String> renamedFiles) {
+        final List<String> names = new ArrayList<>();
+        renamedFiles.keySet().forEach(path -> names.add(tree.relativize(Path.of(path)).toString()));
+        return names;
+    }
+
+}
@@ -1,6 +1,7 @@
 package ca.joaoborges.filemanager.service;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -19,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import ca.joaoborges.filemanager.dto.OrganizeRequest;
 import ca.joaoborges.filemanager.dto.RenameRequest;
+import ca.joaoborges.filemanager.operations.common.OperationConstants;
 import ca.joaoborges.filemanager.operations.duplicateFinder.DuplicateFinder;
 import ca.joaoborges.filemanager.operations.extraction.Extractor;
 import ca.joaoborges.filemanager.operations.organization.Organizer;
@@ -100,4 +102,17 @@ class FileOperationsServiceTest {
         verify(organizer, times(1)).execute(any());
     }
 
+    @Test
+    void testExecuteOrganize_PassesWorkersToOrganizer() {
+        // Given
+        organizeRequest.setWorkers(2);
+
+        // When
+        service.executeOrganize(organizeRequest);
+
+        // Then
+        verify(organizer).execute(argThat(params -> Integer.valueOf(2).equals(
+                params.get(OperationConstants.MOVE_WORKERS))));
+    }
+
 }
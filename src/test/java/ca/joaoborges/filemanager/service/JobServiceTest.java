@@ -0,0 +1,102 @@
+package ca.joaoborges.filemanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import ca.joaoborges.filemanager.exception.OperationCancelledException;
+import ca.joaoborges.filemanager.operations.common.CancellationToken;
+
+/**
+ * Unit tests for JobService
+ */
+class JobServiceTest {
+
+    private JobService jobService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jobService = new JobService(mock(ObjectProvider.class), 1, 1, 60);
+    }
+
+    @Test
+    void testSubmit_queuesBeyondRunningLimitAndStartsInOrder() {
+        // Given
+        final CompletableFuture<Object> first = new CompletableFuture<>();
+        final CompletableFuture<Object> second = new CompletableFuture<>();
+
+        // When
+        final Job running = jobService.submit("organize", null, cancellation -> first);
+        final Job queued = jobService.submit("organize", null, cancellation -> second);
+        final Job otherType = jobService.submit("extract", null, cancellation -> new CompletableFuture<>());
+
+        // Then
+        assertEquals(Job.Status.RUNNING, running.getStatus());
+        assertEquals(Job.Status.QUEUED, queued.getStatus());
+        assertEquals(Job.Status.RUNNING, otherType.getStatus());
+
+        first.complete("done");
+        assertEquals(Job.Status.SUCCEEDED, running.getStatus());
+        assertEquals("done", jobService.getResult(running.getId()));
+        assertEquals(Job.Status.RUNNING, queued.getStatus());
+    }
+
+    @Test
+    void testSubmit_rejectsWhenQueueIsFull() {
+        // Given
+        jobService.submit("rename", null, cancellation -> new CompletableFuture<>());
+        jobService.submit("rename", null, cancellation -> new CompletableFuture<>());
+
+        // When & Then
+        assertThrows(RejectedExecutionException.class,
+            () -> jobService.submit("rename", null, cancellation -> new CompletableFuture<>()));
+    }
+
+    @Test
+    void testFailedJob_keepsErrorAndHasNoResult() {
+        // Given
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final Job job = jobService.submit("extract", null, cancellation -> future);
+
+        // When
+        future.completeExceptionally(new IllegalStateException("disk full"));
+
+        // Then
+        assertEquals(Job.Status.FAILED, job.getStatus());
+        assertEquals("disk full", job.getError());
+        assertNull(jobService.getResult(job.getId()));
+    }
+
+    @Test
+    void testCancel_dropsQueuedJobAndSignalsRunningOne() {
+        // Given
+        final CompletableFuture<Object> first = new CompletableFuture<>();
+        final CancellationToken[] token = new CancellationToken[1];
+        final Job running = jobService.submit("organize", null, cancellation -> {
+            token[0] = cancellation;
+            return first;
+        });
+        final Job queued = jobService.submit("organize", null, cancellation -> new CompletableFuture<>());
+
+        // When
+        jobService.cancel(queued.getId());
+        jobService.cancel(running.getId());
+
+        // Then
+        assertEquals(Job.Status.CANCELLED, queued.getStatus());
+        assertTrue(token[0].isCancelled());
+        first.completeExceptionally(new OperationCancelledException("Cancelled on request"));
+        assertEquals(Job.Status.CANCELLED, running.getStatus());
+    }
+
+}